@@ -0,0 +1,91 @@
+package be.sugoi.wopr;
+
+import java.util.Arrays;
+
+/// Douglas–Peucker line simplification.
+///
+/// Keeps the points needed for the simplified line to stay within
+/// a tolerance of the original one. Ends are always kept, so a closed
+/// ring (first point repeated last) stays closed.
+public final class DouglasPeucker {
+    private DouglasPeucker() {
+        // Not meant to be instantiated
+    }
+
+    /// Simplify a line.
+    ///
+    /// @param xs        X of the points
+    /// @param ys        Y of the points
+    /// @param count     Number of points, from index 0
+    /// @param tolerance Maximum distance between the original and the simplified line,
+    ///                  in the same unit as the coordinates. `0` keeps every point.
+    /// @return The points kept, interleaved `x0, y0, x1, y1...`
+    public static float[] simplify(float[] xs, float[] ys, int count, float tolerance) {
+        var keep = new boolean[count];
+        var kept = 0;
+        if (count <= 2 || tolerance <= 0) {
+            Arrays.fill(keep, true);
+            kept = count;
+        } else {
+            keep[0] = true;
+            keep[count - 1] = true;
+            kept = 2 + mark(xs, ys, count, tolerance * tolerance, keep);
+        }
+        var out = new float[kept * 2];
+        for (int i = 0, j = 0; i < count; i++) {
+            if (keep[i]) {
+                out[j++] = xs[i];
+                out[j++] = ys[i];
+            }
+        }
+        return out;
+    }
+
+    // Mark the points to keep between the ends, without recursion
+    private static int mark(float[] xs, float[] ys, int count, float squaredTolerance, boolean[] keep) {
+        var marked = 0;
+        // Pending ranges, as pairs of (first, last) indices
+        var stack = new int[64];
+        var top = 0;
+        stack[top++] = 0;
+        stack[top++] = count - 1;
+        while (top > 0) {
+            var last = stack[--top];
+            var first = stack[--top];
+            var farthest = -1;
+            var farthestDistance = squaredTolerance;
+            for (int i = first + 1; i < last; i++) {
+                var distance = squaredDistance(xs[i], ys[i], xs[first], ys[first], xs[last], ys[last]);
+                if (distance > farthestDistance) {
+                    farthest = i;
+                    farthestDistance = distance;
+                }
+            }
+            if (farthest < 0) {
+                continue;
+            }
+            keep[farthest] = true;
+            marked++;
+            if (top + 4 > stack.length) {
+                stack = Arrays.copyOf(stack, stack.length * 2);
+            }
+            stack[top++] = first;
+            stack[top++] = farthest;
+            stack[top++] = farthest;
+            stack[top++] = last;
+        }
+        return marked;
+    }
+
+    /// Squared distance from a point to a segment.
+    /// A degenerate segment, as the ends of a closed ring, is a point.
+    static float squaredDistance(float x, float y, float x1, float y1, float x2, float y2) {
+        var dx = x2 - x1;
+        var dy = y2 - y1;
+        var length = dx * dx + dy * dy;
+        var t = length == 0 ? 0 : Math.clamp(((x - x1) * dx + (y - y1) * dy) / length, 0f, 1f);
+        var px = x1 + t * dx - x;
+        var py = y1 + t * dy - y;
+        return px * px + py * py;
+    }
+}
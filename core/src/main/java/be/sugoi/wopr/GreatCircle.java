@@ -0,0 +1,63 @@
+package be.sugoi.wopr;
+
+import com.badlogic.gdx.math.Vector2;
+import org.jetbrains.annotations.NotNull;
+
+import static java.lang.Math.*;
+
+/// Great circle arc between two WGS84 points.
+///
+/// The endpoints unit vectors and the angular distance are computed once,
+/// so that any point along the arc can be evaluated on demand
+/// (spherical linear interpolation) without materializing the whole path.
+/// The arc is immutable, hence safe to share between threads.
+public final class GreatCircle {
+    private final double x1, y1, z1;
+    private final double x2, y2, z2;
+    private final double distance;
+    private final double sinDistance;
+
+    /// @param from Origin (lon, lat in degrees)
+    /// @param to   Destination (lon, lat in degrees)
+    public GreatCircle(@NotNull Vector2 from, @NotNull Vector2 to) {
+        double lon1 = toRadians(from.x);
+        double lat1 = toRadians(from.y);
+        double lon2 = toRadians(to.x);
+        double lat2 = toRadians(to.y);
+        x1 = cos(lat1) * cos(lon1);
+        y1 = cos(lat1) * sin(lon1);
+        z1 = sin(lat1);
+        x2 = cos(lat2) * cos(lon2);
+        y2 = cos(lat2) * sin(lon2);
+        z2 = sin(lat2);
+        distance = Trajectory.haversine(lon1, lat1, lon2, lat2);
+        sinDistance = sin(distance);
+    }
+
+    /// Angular distance between both endpoints (rad)
+    public double distance() {
+        return distance;
+    }
+
+    /// Evaluate a point along the arc.
+    ///
+    /// @param f   Fraction of the arc, `0` at the origin and `1` at the destination
+    /// @param out Receives the point (lon, lat in degrees)
+    /// @return `out`
+    public @NotNull Vector2 pointAt(double f, @NotNull Vector2 out) {
+        double a = sin((1 - f) * distance) / sinDistance;
+        double b = sin(f * distance) / sinDistance;
+        double x = a * x1 + b * x2;
+        double y = a * y1 + b * y2;
+        double z = a * z1 + b * z2;
+        return out.set(lonAt(x, y), latAt(x, y, z));
+    }
+
+    private static float lonAt(double x, double y) {
+        return (float) toDegrees(atan2(y, x));
+    }
+
+    private static float latAt(double x, double y, double z) {
+        return (float) toDegrees(atan2(z, sqrt(x * x + y * y)));
+    }
+}
@@ -7,8 +7,11 @@ import be.sugoi.wopr.log.LoggerConfig;
 import be.sugoi.wopr.programs.thermo.entities.Cities;
 import be.sugoi.wopr.programs.thermo.entities.Countries;
 import be.sugoi.wopr.programs.thermo.entities.SimulationSpeed;
-import be.sugoi.wopr.programs.thermo.entities.scenario.Scenario;
+import be.sugoi.wopr.programs.thermo.entities.scenario.ScenarioEntry;
 import be.sugoi.wopr.programs.thermo.entities.scenario.ScenarioMaker;
+import be.sugoi.wopr.programs.thermo.entities.scenario.ScenarioRun;
+import be.sugoi.wopr.programs.thermo.entities.scenario.ScenarioTemplate;
+import be.sugoi.wopr.programs.thermo.screens.WorldOutlines;
 import be.sugoi.wopr.theme.Theme;
 import com.badlogic.gdx.Game;
 import com.badlogic.gdx.Gdx;
@@ -22,6 +25,7 @@ import com.badlogic.gdx.utils.viewport.ScreenViewport;
 import java.io.FileNotFoundException;
 import java.util.List;
 import java.util.Map;
+import java.util.SplittableRandom;
 
 public class Main extends Game {
     public static final int DEFAULT_SCREEN_WIDTH = 1280;
@@ -50,10 +54,14 @@ public class Main extends Game {
 
     // Thermonuclear components
     public Countries countries;
+    // Country outlines, simplified and uploaded to the GPU once
+    public WorldOutlines outlines;
     public Cities cities;
     public ScenarioMaker scenarioMaker;
-    private List<Scenario> scenarios;
+    private List<ScenarioEntry> scenarios;
     private int scenarioIndex;
+    private ScenarioRun run;
+    private final SplittableRandom runSeeds = new SplittableRandom();
     public SimulationSpeed simulationSpeed;
 
     @Override
@@ -77,19 +85,20 @@ public class Main extends Game {
 
         countries = new Countries();
         countries.load();
+        outlines = new WorldOutlines(countries.getCountries());
         cities = new Cities();
         cities.load();
         scenarioMaker = new ScenarioMaker(cities, countries);
+        // Built in the background while the user goes through the first screens
+        scenarios = scenarioMaker.loadAsync();
 
         screenManager = new ScreenManager(this);
         screenManager.notify(this.getClass().getSimpleName(), "start");
     }
 
-    public void setScenarios(List<Scenario> scenarios) {
-        this.scenarios = scenarios;
-    }
-
-    public List<Scenario> getScenarios() {
+    /// Scenarios, listed at once and built in the background.
+    /// They are immutable templates, kept for the whole session.
+    public List<ScenarioEntry> getScenarios() {
         return scenarios;
     }
 
@@ -100,10 +109,32 @@ public class Main extends Game {
         this.scenarioIndex = scenarioIndex;
     }
 
-    public Scenario getScenario() {
+    /// The selected scenario entry, built or not.
+    public ScenarioEntry getScenarioEntry() {
         return scenarios.get(scenarioIndex);
     }
 
+    /// The selected scenario, waiting for it to be built if needed.
+    public ScenarioTemplate getScenario() {
+        return scenarios.get(scenarioIndex).template();
+    }
+
+    /// Start a run of the selected scenario, with a new seed.
+    ///
+    /// The previous run is restarted in place if it is of the same scenario.
+    /// @return The run
+    @SuppressWarnings("UnusedReturnValue")
+    public ScenarioRun startRun() {
+        var seed = runSeeds.nextLong();
+        var scenario = getScenario();
+        run = run != null && run.template() == scenario ? run.restart(seed) : scenario.newRun(seed);
+        return run;
+    }
+
+    public ScenarioRun getRun() {
+        return run;
+    }
+
     @SuppressWarnings("UnusedReturnValue")
     public Theme changeTheme(String name) {
         settings.setTheme(name);
@@ -176,6 +207,7 @@ public class Main extends Game {
     @Override
     public void dispose() {
         super.dispose();
+        outlines.dispose();
         fm.dispose();
     }
 }
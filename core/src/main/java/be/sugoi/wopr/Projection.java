@@ -1,11 +1,16 @@
 package be.sugoi.wopr;
 
-import be.sugoi.wopr.programs.thermo.entities.Polygon;
+import com.badlogic.gdx.math.Matrix4;
+import com.badlogic.gdx.math.Rectangle;
 import com.badlogic.gdx.math.Vector2;
 
 public class Projection {
     private static final Vector2 WORLD_CENTER = new Vector2(Main.WORLD_WIDTH/2, Main.WORLD_HEIGHT/2);
 
+    /// Project WGS84 coordinates to the screen. Allocates.
+    ///
+    /// Prefer projecting precomputed Mercator coordinates,
+    /// with [#mercatorToScreenProjection(Vector2, Vector2, float, Vector2)].
     public static Vector2 coordinatesToScreenProjection(Vector2 coordinates, Vector2 offset, float zoom) {
         // Convert
         var merc = WGS84.wgs84ToMercator(coordinates);
@@ -19,9 +24,73 @@ public class Projection {
         return merc;
     }
 
-    public static Polygon polygonToScreenProjection(Polygon polygon, Vector2 offset, float zoom) {
-        return Polygon.of(polygon.getPoints().stream()
-            .map(point -> coordinatesToScreenProjection(point, offset, zoom))
-            .toList());
+    /// Project normalized Mercator coordinates to the screen.
+    /// @param x      Mercator X
+    /// @param y      Mercator Y
+    /// @param offset Map offset
+    /// @param zoom   Map zoom
+    /// @param out    Receives the screen coordinates
+    /// @return `out`
+    public static Vector2 mercatorToScreenProjection(float x, float y, Vector2 offset, float zoom, Vector2 out) {
+        return out.set(
+            (x + offset.x - WORLD_CENTER.x) * zoom + WORLD_CENTER.x,
+            (y + offset.y - WORLD_CENTER.y) * zoom + WORLD_CENTER.y
+        );
+    }
+
+    /// Project normalized Mercator coordinates to the screen.
+    /// @param mercator Mercator coordinates
+    /// @param offset   Map offset
+    /// @param zoom     Map zoom
+    /// @param out      Receives the screen coordinates
+    /// @return `out`
+    public static Vector2 mercatorToScreenProjection(Vector2 mercator, Vector2 offset, float zoom, Vector2 out) {
+        return mercatorToScreenProjection(mercator.x, mercator.y, offset, zoom, out);
+    }
+
+    /// Project WGS84 coordinates to the screen, without allocating.
+    ///
+    /// For moving points only: static ones have their Mercator coordinates precomputed.
+    ///
+    /// @param coordinates WGS84 coordinates (lon, lat)
+    /// @param offset      Map offset
+    /// @param zoom        Map zoom
+    /// @param out         Receives the screen coordinates
+    /// @return `out`
+    public static Vector2 coordinatesToScreenProjection(Vector2 coordinates, Vector2 offset, float zoom, Vector2 out) {
+        return mercatorToScreenProjection(
+            WGS84.lonToMercator(coordinates.x), WGS84.latToMercator(coordinates.y), offset, zoom, out);
+    }
+
+    /// Matrix projecting normalized Mercator coordinates to the screen.
+    ///
+    /// Same as [#mercatorToScreenProjection(float, float, Vector2, float, Vector2)],
+    /// on the GPU: geometry kept in Mercator space is drawn with this matrix,
+    /// and changing the view only changes the matrix.
+    ///
+    /// @param screen Projection of the screen (world) coordinates, e.g. the camera combined matrix
+    /// @param offset Map offset
+    /// @param zoom   Map zoom
+    /// @param out    Receives the matrix
+    /// @return `out`
+    public static Matrix4 mercatorToScreenMatrix(Matrix4 screen, Vector2 offset, float zoom, Matrix4 out) {
+        return out.set(screen)
+            .translate(WORLD_CENTER.x, WORLD_CENTER.y, 0)
+            .scale(zoom, zoom, 1)
+            .translate(offset.x - WORLD_CENTER.x, offset.y - WORLD_CENTER.y, 0);
+    }
+
+    /// Area of the normalized Mercator space visible on screen.
+    /// @param offset Map offset
+    /// @param zoom   Map zoom
+    /// @param margin Extra screen space around the world, on each side
+    /// @param out    Receives the area
+    /// @return `out`
+    public static Rectangle visibleMercatorArea(Vector2 offset, float zoom, float margin, Rectangle out) {
+        var minX = (-margin - WORLD_CENTER.x) / zoom + WORLD_CENTER.x - offset.x;
+        var minY = (-margin - WORLD_CENTER.y) / zoom + WORLD_CENTER.y - offset.y;
+        var width = (Main.WORLD_WIDTH + 2 * margin) / zoom;
+        var height = (Main.WORLD_HEIGHT + 2 * margin) / zoom;
+        return out.set(minX, minY, width, height);
     }
 }
@@ -123,6 +123,13 @@ public class ScreenManager {
             return;
         }
 
+        if (SpeedScreen.class.getSimpleName().equals(origin)) {
+            if ("skip".equals(event)) {
+                gotoScreen(OutcomeScreen.class);
+                return;
+            }
+        }
+
         if (DisplaySettingsScreen.class.getSimpleName().equals(origin)) {
             if ("back".equals(event)) {
                 gotoScreen(SettingsScreen.class);
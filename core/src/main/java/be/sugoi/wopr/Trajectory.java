@@ -17,22 +17,10 @@ public class Trajectory {
     /// @param numPoints How many in-between points
     /// @return A list of points.
     public static List<Vector2> generateEquidistantPoints(Vector2 a, Vector2 b, int numPoints) {
-        List<Vector2> points = new ArrayList<>();
-        double lat1 = toRadians(a.y);
-        double lon1 = toRadians(a.x);
-        double lat2 = toRadians(b.y);
-        double lon2 = toRadians(b.x);
-
+        var arc = new GreatCircle(a, b);
+        List<Vector2> points = new ArrayList<>(numPoints);
         for (int i = 1; i <= numPoints; i++) {
-            double f = (double) i / (numPoints + 1);
-            double A = sin((1 - f) * haversine(lon1, lat1, lon2, lat2)) / sin(haversine(lon1, lat1, lon2, lat2));
-            double B = sin(f * haversine(lon1, lat1, lon2, lat2)) / sin(haversine(lon1, lat1, lon2, lat2));
-            double x = A * cos(lat1) * cos(lon1) + B * cos(lat2) * cos(lon2);
-            double y = A * cos(lat1) * sin(lon1) + B * cos(lat2) * sin(lon2);
-            double z = A * sin(lat1) + B * sin(lat2);
-            double lat = atan2(z, sqrt(x * x + y * y));
-            double lon = atan2(y, x);
-            points.add(new Vector2((float) toDegrees(lon), (float) toDegrees(lat)));
+            points.add(arc.pointAt((double) i / (numPoints + 1), new Vector2()));
         }
         return points;
     }
@@ -41,6 +41,19 @@ public class WGS84 {
         return new Vector2(x, y);
     }
 
+    /// Convert WGS84 coordinates to normalized Mercator coordinates, in one pass.
+    /// @param lons  Longitudes in degrees
+    /// @param lats  Latitudes in degrees
+    /// @param xs    Receives the Mercator X, see [#lonToMercator(float)]
+    /// @param ys    Receives the Mercator Y, see [#latToMercator(float)]
+    /// @param count Number of points, from index 0
+    public static void toMercator(float[] lons, float[] lats, float[] xs, float[] ys, int count) {
+        for (int i = 0; i < count; i++) {
+            xs[i] = lonToMercator(lons[i]);
+            ys[i] = latToMercator(lats[i]);
+        }
+    }
+
     public static void main(String[] args) {
         float lat = 45.0f;
         float lon = 90.0f;
@@ -1,30 +1,49 @@
 package be.sugoi.wopr.programs.thermo.entities;
 
 import com.badlogic.gdx.Gdx;
-import com.badlogic.gdx.math.Vector2;
 import org.jetbrains.annotations.NotNull;
 
-import java.util.ArrayList;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.Arrays;
 import java.util.List;
 import java.util.stream.Stream;
 
+/// World cities, backed by a [CityTable] and indexed by a [CityGrid].
 public class Cities {
-    private @NotNull List<City> cities = new ArrayList<>();
+    private static final String FILENAME = "worldcities.csv";
 
+    private @NotNull CityTable table = new CityTable.Builder().build();
+    private @NotNull CityGrid grid = new CityGrid(table);
+
+    /// Load cities from the application internal files.
     public void load() {
-        var handle = Gdx.files.internal("worldcities.csv");
-        var text = handle.readString();
-        cities = Stream.of(text.split("\n"))
+        var handle = Gdx.files.internal(FILENAME);
+        parse(handle.readString());
+    }
+
+    /// Load cities from the file system, without libGDX.
+    /// @param assets Assets directory
+    /// @throws IOException If the file cannot be read
+    public void load(@NotNull Path assets) throws IOException {
+        parse(Files.readString(assets.resolve(FILENAME)));
+    }
+
+    private void parse(String text) {
+        var builder = new CityTable.Builder();
+        Stream.of(text.split("\n"))
             .skip(1)
-            .map(this::parseCity)
-            .toList();
+            .forEach(line -> parseCity(line, builder));
+        table = builder.build();
+        grid = new CityGrid(table);
     }
 
-    private City parseCity(String line) {
+    private void parseCity(String line, CityTable.Builder builder) {
         var parts = Arrays.stream(line.split(",")).map(s -> s.replaceAll("\"", "")).toList();
         var asciiName = parts.get(1);
-        var coord = new Vector2(Float.parseFloat(parts.get(3)), Float.parseFloat(parts.get(2)));
+        var lon = Float.parseFloat(parts.get(3));
+        var lat = Float.parseFloat(parts.get(2));
         var countryCode = parts.get(5);
 
         int population;
@@ -38,11 +57,20 @@ public class Cities {
             }
         }
 
-        return new City(asciiName, coord, countryCode, population);
+        builder.add(asciiName, lon, lat, countryCode, population);
+    }
+
+    public @NotNull CityTable table() {
+        return table;
+    }
+
+    /// Spatial index over the cities
+    public @NotNull CityGrid grid() {
+        return grid;
     }
 
     public @NotNull List<City> getCities() {
-        return cities;
+        return table.cities();
     }
 
 }
@@ -0,0 +1,96 @@
+package be.sugoi.wopr.programs.thermo.entities;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.random.RandomGenerator;
+
+/// Damages (fatalities, hits) suffered by a fixed set of cities during a run.
+///
+/// Only the cities that may be hit are tracked, by their index in the set,
+/// so resetting costs no more than the number of targets.
+public class CityDamage {
+    private static final Map<Integer, Float> THRESHOLDS = buildThresholdsMap();
+    private static final float DEATH_MAX_FLUCTUATION_RATIO = 0.2f;
+    private static final float PREVIOUS_STRIKE_FACTOR = 0.2f;
+    private static final float MISS_PROBABILITY = 0.05f;
+    private static final float MISS_PENALTY = 0.8f;
+
+    private final @NotNull List<City> cities;
+    private final int[] fatalities;
+    private final int[] hits;
+
+    /// @param cities Cities that may be hit
+    public CityDamage(@NotNull List<City> cities) {
+        this.cities = cities;
+        this.fatalities = new int[cities.size()];
+        this.hits = new int[cities.size()];
+    }
+
+    /// Forget every damage.
+    public void reset() {
+        Arrays.fill(fatalities, 0);
+        Arrays.fill(hits, 0);
+    }
+
+    /// Hit a city with a nuke.
+    ///
+    /// @param index  City index in the set
+    /// @param random Source of the damage rolls
+    /// @return Fatalities caused
+    public int hit(int index, @NotNull RandomGenerator random) {
+        var alive = cities.get(index).population() - fatalities[index];
+        var killRatio = THRESHOLDS.entrySet().stream()
+            .filter(e -> e.getKey() <= alive)
+            .findFirst()
+            .orElseThrow()
+            .getValue();
+        var previousStrikesRatio = 1 + PREVIOUS_STRIKE_FACTOR * hits[index];
+        var missPenalty = random.nextFloat() <= MISS_PROBABILITY ? MISS_PENALTY : 1.0f;
+        var randomFluctuationRatio = random.nextFloat(1 - DEATH_MAX_FLUCTUATION_RATIO/2, 1 + DEATH_MAX_FLUCTUATION_RATIO/2);
+        var killed = (int) (alive * killRatio * randomFluctuationRatio / previousStrikesRatio / missPenalty);
+        // Ratios above may exceed 1
+        killed = Math.min(killed, alive);
+        fatalities[index] += killed;
+        hits[index]++;
+        return killed;
+    }
+
+    public @NotNull City city(int index) {
+        return cities.get(index);
+    }
+
+    public int fatalities(int index) {
+        return fatalities[index];
+    }
+
+    public int hits(int index) {
+        return hits[index];
+    }
+
+    public int size() {
+        return cities.size();
+    }
+
+    /**
+     * Fatalities thresholds.
+     * <p/>
+     * Smaller cities suffer a higher percentage of casualties,
+     * @return Map key: population threshold, value: casualties ratio
+     */
+    private static LinkedHashMap<Integer, Float> buildThresholdsMap() {
+        LinkedHashMap<Integer, Float> map = new LinkedHashMap<>();
+        map.put(10_000_000, 0.02f);
+        map.put(5_000_000, 0.04f);
+        map.put(1_000_000, 0.15f);
+        map.put(500_000, 0.25f);
+        map.put(100_000, 0.40f);
+        map.put(50_000, 0.50f);
+        map.put(10_000, 0.75f);
+        map.put(0, 0.9f);
+        return map;
+    }
+}
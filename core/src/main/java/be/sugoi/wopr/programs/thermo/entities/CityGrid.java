@@ -0,0 +1,93 @@
+package be.sugoi.wopr.programs.thermo.entities;
+
+import com.badlogic.gdx.math.Rectangle;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+
+/// Spatial index over cities, in normalized Mercator space.
+///
+/// Cities are bucketed in a uniform grid over `[0, 1] x [0, 1]`.
+/// Within each cell, cities are ordered by decreasing population,
+/// so that a query with a population threshold stops at the first
+/// city below it: the work is proportional to what is visible.
+///
+/// The index only depends on static city data, it is shared
+/// by every simulation run.
+public final class CityGrid {
+    private static final int RESOLUTION = 128;
+
+    private final @NotNull CityTable table;
+    // Cities of each cell, cell after cell (compressed rows)
+    private final int[] cellStarts;
+    private final int[] cellCities;
+    private final int[] cellPopulations;
+
+    public CityGrid(@NotNull CityTable table) {
+        this.table = table;
+        var size = table.size();
+        var cells = new int[size];
+        var counts = new int[RESOLUTION * RESOLUTION + 1];
+        for (int id = 0; id < size; id++) {
+            cells[id] = cellIndex(column(table.mercatorX(id)), row(table.mercatorY(id)));
+            counts[cells[id] + 1]++;
+        }
+        cellStarts = new int[RESOLUTION * RESOLUTION + 1];
+        for (int cell = 0; cell < RESOLUTION * RESOLUTION; cell++) {
+            cellStarts[cell + 1] = cellStarts[cell] + counts[cell + 1];
+        }
+        // Fill cells, largest cities first
+        var byPopulation = IntStream.range(0, size)
+            .boxed()
+            .sorted((a, b) -> Integer.compare(table.population(b), table.population(a)))
+            .mapToInt(Integer::intValue)
+            .toArray();
+        var next = cellStarts.clone();
+        cellCities = new int[size];
+        cellPopulations = new int[size];
+        for (var id : byPopulation) {
+            var i = next[cells[id]]++;
+            cellCities[i] = id;
+            cellPopulations[i] = table.population(id);
+        }
+    }
+
+    /// Visit the cities within an area, above a population threshold.
+    ///
+    /// @param area          Area in normalized Mercator coordinates
+    /// @param minPopulation Minimum population, inclusive
+    /// @param action        Consumer of city ids
+    public void forEach(@NotNull Rectangle area, int minPopulation, @NotNull IntConsumer action) {
+        var minColumn = column(area.x);
+        var maxColumn = column(area.x + area.width);
+        var minRow = row(area.y);
+        var maxRow = row(area.y + area.height);
+        for (int row = minRow; row <= maxRow; row++) {
+            for (int column = minColumn; column <= maxColumn; column++) {
+                var cell = cellIndex(column, row);
+                for (int i = cellStarts[cell]; i < cellStarts[cell + 1]; i++) {
+                    if (cellPopulations[i] < minPopulation) {
+                        break;
+                    }
+                    var id = cellCities[i];
+                    if (area.contains(table.mercatorX(id), table.mercatorY(id))) {
+                        action.accept(id);
+                    }
+                }
+            }
+        }
+    }
+
+    private static int column(float x) {
+        return Math.clamp((int) (x * RESOLUTION), 0, RESOLUTION - 1);
+    }
+
+    private static int row(float y) {
+        return Math.clamp((int) (y * RESOLUTION), 0, RESOLUTION - 1);
+    }
+
+    private static int cellIndex(int column, int row) {
+        return row * RESOLUTION + column;
+    }
+}
@@ -0,0 +1,178 @@
+package be.sugoi.wopr.programs.thermo.entities;
+
+import be.sugoi.wopr.WGS84;
+import com.badlogic.gdx.math.Vector2;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/// World cities, stored as columns of primitive arrays.
+///
+/// Each city is addressed by a dense int id. Names are materialized once,
+/// so that reading them while rendering does not allocate. Country codes
+/// are interned to small ids.
+/// Normalized Mercator coordinates are computed once, when the table is built.
+/// The table is immutable: damages are tracked per simulation run,
+/// see [CityDamage], so a single table serves every run.
+///
+/// A [City] is a lightweight view over a row, kept for the object API.
+/// There is exactly one view per row: views can be compared by identity.
+public final class CityTable {
+    private final @NotNull String[] names;
+    private final float[] lons;
+    private final float[] lats;
+    private final float[] mercatorXs;
+    private final float[] mercatorYs;
+    private final int[] countryIds;
+    private final int[] populations;
+    private final @NotNull List<String> countryCodes;
+    private final @NotNull Map<String, Integer> countryIdsByCode;
+
+    private final @NotNull City[] views;
+    private final @NotNull List<City> viewList;
+
+    private CityTable(
+        @NotNull String[] names,
+        float[] lons,
+        float[] lats,
+        int[] countryIds,
+        int[] populations,
+        @NotNull List<String> countryCodes,
+        @NotNull Map<String, Integer> countryIdsByCode
+    ) {
+        this.names = names;
+        this.lons = lons;
+        this.lats = lats;
+        this.mercatorXs = new float[lons.length];
+        this.mercatorYs = new float[lons.length];
+        WGS84.toMercator(lons, lats, mercatorXs, mercatorYs, lons.length);
+        this.countryIds = countryIds;
+        this.populations = populations;
+        this.countryCodes = countryCodes;
+        this.countryIdsByCode = countryIdsByCode;
+        this.views = new City[lons.length];
+        for (int id = 0; id < views.length; id++) {
+            views[id] = new City(this, id);
+        }
+        this.viewList = Collections.unmodifiableList(Arrays.asList(views));
+    }
+
+    public int size() {
+        return views.length;
+    }
+
+    /// View over a city.
+    /// @param id City id
+    /// @return The view, always the same instance for a given id
+    public @NotNull City city(int id) {
+        return views[id];
+    }
+
+    /// @return Views over all cities, by id
+    public @NotNull List<City> cities() {
+        return viewList;
+    }
+
+    public @NotNull String name(int id) {
+        return names[id];
+    }
+
+    public float lon(int id) {
+        return lons[id];
+    }
+
+    public float lat(int id) {
+        return lats[id];
+    }
+
+    /// Coordinates of a city.
+    /// @param id  City id
+    /// @param out Receives the coordinates (lon, lat)
+    /// @return `out`
+    public @NotNull Vector2 coord(int id, @NotNull Vector2 out) {
+        return out.set(lons[id], lats[id]);
+    }
+
+    /// Normalized Mercator X, see [be.sugoi.wopr.WGS84#lonToMercator(float)]
+    public float mercatorX(int id) {
+        return mercatorXs[id];
+    }
+
+    /// Normalized Mercator Y, see [be.sugoi.wopr.WGS84#latToMercator(float)]
+    public float mercatorY(int id) {
+        return mercatorYs[id];
+    }
+
+    public int countryId(int id) {
+        return countryIds[id];
+    }
+
+    public @NotNull String countryCode(int id) {
+        return countryCodes.get(countryIds[id]);
+    }
+
+    /// Id of a country code.
+    /// @param countryCode Country code
+    /// @return Its id, or -1 if no city belongs to that country
+    public int countryIdOf(@NotNull String countryCode) {
+        return countryIdsByCode.getOrDefault(countryCode, -1);
+    }
+
+    /// Number of distinct countries
+    public int countryCount() {
+        return countryCodes.size();
+    }
+
+    public int population(int id) {
+        return populations[id];
+    }
+
+    /// Accumulates rows, then builds the table.
+    public static final class Builder {
+        private String[] names = new String[1024];
+        private float[] lons = new float[1024];
+        private float[] lats = new float[1024];
+        private int[] countryIds = new int[1024];
+        private int[] populations = new int[1024];
+        private final List<String> countryCodes = new ArrayList<>();
+        private final Map<String, Integer> countryIdsByCode = new HashMap<>();
+        private int size = 0;
+
+        public @NotNull Builder add(@NotNull String name, float lon, float lat, @NotNull String countryCode, int population) {
+            if (size == lons.length) {
+                var capacity = size * 2;
+                names = Arrays.copyOf(names, capacity);
+                lons = Arrays.copyOf(lons, capacity);
+                lats = Arrays.copyOf(lats, capacity);
+                countryIds = Arrays.copyOf(countryIds, capacity);
+                populations = Arrays.copyOf(populations, capacity);
+            }
+            names[size] = name;
+            lons[size] = lon;
+            lats[size] = lat;
+            countryIds[size] = countryIdsByCode.computeIfAbsent(countryCode, code -> {
+                countryCodes.add(code);
+                return countryCodes.size() - 1;
+            });
+            populations[size] = population;
+            size++;
+            return this;
+        }
+
+        public @NotNull CityTable build() {
+            return new CityTable(
+                Arrays.copyOf(names, size),
+                Arrays.copyOf(lons, size),
+                Arrays.copyOf(lats, size),
+                Arrays.copyOf(countryIds, size),
+                Arrays.copyOf(populations, size),
+                List.copyOf(countryCodes),
+                Map.copyOf(countryIdsByCode));
+        }
+    }
+}
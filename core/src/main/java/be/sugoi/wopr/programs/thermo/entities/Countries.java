@@ -6,24 +6,33 @@ import org.json.JSONArray;
 import org.json.JSONException;
 import org.json.JSONObject;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.NoSuchElementException;
 import java.util.stream.IntStream;
 
 public class Countries {
+    private static final String FILENAME = "custom.geo.json";
+    // private static final String FILENAME = "WB_countries_Admin0_lowres.geojson";
+
     private List<Country> countries;
 
+    /// Load countries from the application internal files.
     public void load() {
-        JSONObject earth = loadJSON();
-        countries = extractCountries(earth);
+        var handle = Gdx.files.internal(FILENAME);
+        var text = handle.readString();
+        countries = extractCountries(new JSONObject(text));
     }
 
-    private JSONObject loadJSON() {
-        var handle = Gdx.files.internal("custom.geo.json");
-        // var handle = Gdx.files.internal("WB_countries_Admin0_lowres.geojson");
-        var text = handle.readString();
-        return new JSONObject(text);
+    /// Load countries from the file system, without libGDX.
+    /// @param assets Assets directory
+    /// @throws IOException If the file cannot be read
+    public void load(Path assets) throws IOException {
+        var text = Files.readString(assets.resolve(FILENAME));
+        countries = extractCountries(new JSONObject(text));
     }
 
     private void extractPolygon(JSONArray jsonArray, List<Polygon> acc) {
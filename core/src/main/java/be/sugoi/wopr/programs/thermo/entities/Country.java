@@ -1,18 +1,100 @@
 package be.sugoi.wopr.programs.thermo.entities;
 
+import be.sugoi.wopr.WGS84;
+import com.badlogic.gdx.math.Rectangle;
 import com.badlogic.gdx.math.Vector2;
 import org.jetbrains.annotations.NotNull;
 
 import java.util.Comparator;
 import java.util.List;
 
-public record Country(
-    @NotNull String name,
-    @NotNull String countryCode,
-    int population,
-    @NotNull List<Polygon> polygons,
-    @NotNull Vector2 labelPosition)
-{
+/// A country.
+///
+/// Immutable. Positions are held in libGDX types, which are mutable:
+/// they are never handed out, only copied into caller-supplied ones.
+public final class Country {
+    private final @NotNull String name;
+    private final @NotNull String countryCode;
+    private final int population;
+    private final @NotNull List<Polygon> polygons;
+    // Where to write its name (lon, lat), and the same in normalized Mercator coordinates
+    private final @NotNull Vector2 labelPosition;
+    private final @NotNull Vector2 labelMercator;
+    // Bounding box of its polygons, in normalized Mercator coordinates
+    private final @NotNull Rectangle bounds;
+
+    /// @param name          Country name
+    /// @param countryCode   ISO 3166-1 alpha-2 code
+    /// @param population    Population
+    /// @param polygons      Shapes
+    /// @param labelPosition Where to write its name (lon, lat)
+    public Country(
+        @NotNull String name,
+        @NotNull String countryCode,
+        int population,
+        @NotNull List<Polygon> polygons,
+        @NotNull Vector2 labelPosition
+    ) {
+        this.name = name;
+        this.countryCode = countryCode;
+        this.population = population;
+        this.polygons = List.copyOf(polygons);
+        this.labelPosition = new Vector2(labelPosition);
+        this.labelMercator = WGS84.wgs84ToMercator(labelPosition);
+        this.bounds = bounds(polygons);
+    }
+
+    private static Rectangle bounds(List<Polygon> polygons) {
+        if (polygons.isEmpty()) {
+            return new Rectangle();
+        }
+        var bounds = polygons.getFirst().bounds(new Rectangle());
+        var polygonBounds = new Rectangle();
+        polygons.forEach(polygon -> bounds.merge(polygon.bounds(polygonBounds)));
+        return bounds;
+    }
+
+    public @NotNull String name() {
+        return name;
+    }
+
+    public @NotNull String countryCode() {
+        return countryCode;
+    }
+
+    public int population() {
+        return population;
+    }
+
+    public @NotNull List<Polygon> polygons() {
+        return polygons;
+    }
+
+    /// Where to write its name (lon, lat). Allocates, see [#labelMercator(Vector2)].
+    public @NotNull Vector2 labelPosition() {
+        return new Vector2(labelPosition);
+    }
+
+    /// Where to write its name, in normalized Mercator coordinates.
+    /// @param out Receives the coordinates
+    /// @return `out`
+    public @NotNull Vector2 labelMercator(@NotNull Vector2 out) {
+        return out.set(labelMercator);
+    }
+
+    /// Bounding box of its polygons, in normalized Mercator coordinates.
+    /// @param out Receives the bounding box
+    /// @return `out`
+    public @NotNull Rectangle bounds(@NotNull Rectangle out) {
+        return out.set(bounds);
+    }
+
+    /// Whether its bounding box overlaps an area.
+    /// @param area Area in normalized Mercator coordinates
+    public boolean overlaps(@NotNull Rectangle area) {
+        return area.overlaps(bounds);
+    }
+
     @Override
     public String toString() {
         var longest = polygons.stream()
@@ -48,6 +48,11 @@ public class Detonation implements Updateable {
         return 0.0f;
     }
 
+    /// Whether the animation is over, the decay phase included
+    public boolean isFinished() {
+        return clock > (GROWTH_DURATION + FULL_PEAK_DURATION + DECAY_DURATION) * speed;
+    }
+
     public @NotNull City city() {
         return city;
     }
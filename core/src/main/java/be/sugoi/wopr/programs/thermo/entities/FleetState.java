@@ -0,0 +1,248 @@
+package be.sugoi.wopr.programs.thermo.entities;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.function.IntConsumer;
+import java.util.random.RandomGenerator;
+import java.util.stream.IntStream;
+
+/// Flight state of a [NukeFleet] during a run.
+///
+/// Launch delays, launch times and flags live in primitive arrays
+/// indexed by nuke id. Legs are derived from the clock and the launch time,
+/// so nothing needs to be updated per nuke while it is cruising.
+///
+/// The state keeps track of the nukes currently in flight, overall and per party,
+/// so that visiting them costs nothing for the rest of the arsenal.
+/// They are exposed as live, read-only views.
+///
+/// Resetting touches every array once: restarting a run costs
+/// as much as the number of warheads, nothing is rebuilt.
+public class FleetState {
+    private static final float MAX_LAUNCH_DELAY = 60.0f;
+
+    private static final byte LAUNCHED = 1;
+    private static final byte ARRIVED = 1 << 1;
+    private static final byte DETONATED = 1 << 2;
+
+    private final @NotNull NukeFleet fleet;
+
+    // Per nuke
+    private final float[] launchDelays;
+    private final float[] launchTimes;
+    private final byte[] states;
+
+    // Nukes in flight: dense set of ids, and the slot of each id (-1 if absent)
+    private final int[] airborne;
+    private final int[] airborneSlots;
+    private int airborneCount = 0;
+    // Same, per party
+    private final int[][] partyAirborne;
+    private final int[] partyAirborneCounts;
+    private final int[] partyAirborneSlots;
+
+    private final @NotNull List<Nuke> airborneView = new AirborneView(-1);
+    private final @NotNull List<List<Nuke>> partyAirborneViews;
+
+    private int arrivedCount = 0;
+    private float clock = 0;
+
+    /// @param fleet  The fleet
+    /// @param timing Source of the launch delays
+    public FleetState(@NotNull NukeFleet fleet, @NotNull RandomGenerator timing) {
+        this.fleet = fleet;
+        var count = fleet.size();
+        var partiesCount = fleet.parties().size();
+        launchDelays = new float[count];
+        launchTimes = new float[count];
+        states = new byte[count];
+        airborne = new int[count];
+        airborneSlots = new int[count];
+        partyAirborne = new int[partiesCount][];
+        partyAirborneCounts = new int[partiesCount];
+        partyAirborneSlots = new int[count];
+        for (int partyId = 0; partyId < partiesCount; partyId++) {
+            partyAirborne[partyId] = new int[fleet.partySize(partyId)];
+        }
+        partyAirborneViews = IntStream.range(0, partiesCount)
+            .<List<Nuke>>mapToObj(AirborneView::new)
+            .toList();
+        reset(timing);
+    }
+
+    /// Ground every nuke and draw new launch delays.
+    /// @param timing Source of the launch delays
+    public void reset(@NotNull RandomGenerator timing) {
+        for (int id = 0; id < launchDelays.length; id++) {
+            launchDelays[id] = timing.nextFloat(MAX_LAUNCH_DELAY);
+        }
+        Arrays.fill(launchTimes, 0);
+        Arrays.fill(states, (byte) 0);
+        Arrays.fill(airborneSlots, -1);
+        Arrays.fill(partyAirborneCounts, 0);
+        airborneCount = 0;
+        arrivedCount = 0;
+        clock = 0;
+    }
+
+    public @NotNull NukeFleet fleet() {
+        return fleet;
+    }
+
+    /// Set the clock, used to derive the legs of nukes in flight.
+    /// @param clock Simulation time since the first strike
+    public void setClock(float clock) {
+        this.clock = clock;
+    }
+
+    /// Launch a nuke.
+    /// @param id   Nuke id
+    /// @param time Launch time
+    public void launch(int id, float time) {
+        if ((states[id] & LAUNCHED) != 0) {
+            throw new IllegalStateException("Nuke already launched: " + fleet.nuke(id));
+        }
+        states[id] |= LAUNCHED;
+        launchTimes[id] = time;
+        airborneSlots[id] = airborneCount;
+        airborne[airborneCount++] = id;
+        var partyId = fleet.partyId(id);
+        partyAirborneSlots[id] = partyAirborneCounts[partyId];
+        partyAirborne[partyId][partyAirborneCounts[partyId]++] = id;
+    }
+
+    /// Mark a nuke as having reached its destination.
+    /// @param id Nuke id
+    public void arrive(int id) {
+        if (!isAirborne(id)) {
+            throw new IllegalStateException("Nuke not in flight: " + fleet.nuke(id));
+        }
+        states[id] |= ARRIVED;
+        arrivedCount++;
+        // Swap with the last nuke in flight
+        var slot = airborneSlots[id];
+        var last = airborne[--airborneCount];
+        airborne[slot] = last;
+        airborneSlots[last] = slot;
+        airborneSlots[id] = -1;
+        // Same within the party
+        var partyId = fleet.partyId(id);
+        var ids = partyAirborne[partyId];
+        var partySlot = partyAirborneSlots[id];
+        var partyLast = ids[--partyAirborneCounts[partyId]];
+        ids[partySlot] = partyLast;
+        partyAirborneSlots[partyLast] = partySlot;
+    }
+
+    /// Mark a nuke as detonated.
+    /// @param id Nuke id, must have reached its destination
+    public void detonate(int id) {
+        if (!hasReachedDestination(id)) {
+            throw new IllegalStateException("Cannot detonate a non terminal nuke: " + fleet.nuke(id));
+        }
+        states[id] |= DETONATED;
+    }
+
+    /// Visit the nukes currently in flight.
+    /// @param action Consumer of nuke ids
+    public void forEachAirborne(@NotNull IntConsumer action) {
+        for (int i = 0; i < airborneCount; i++) {
+            action.accept(airborne[i]);
+        }
+    }
+
+    public int airborneCount() {
+        return airborneCount;
+    }
+
+    /// Nukes in flight.
+    /// @return A live, read-only view
+    public @NotNull List<Nuke> airborne() {
+        return airborneView;
+    }
+
+    /// Nukes of a party in flight.
+    /// @param partyId Party index
+    /// @return A live, read-only view
+    public @NotNull List<Nuke> airborne(int partyId) {
+        return partyAirborneViews.get(partyId);
+    }
+
+    public boolean allArrived() {
+        return arrivedCount == fleet.size();
+    }
+
+    /// Delay between the moment the party may fire and the actual launch.
+    /// @param id Nuke id
+    /// @return Delay
+    public float launchDelay(int id) {
+        return launchDelays[id];
+    }
+
+    public int leg(int id) {
+        var state = states[id];
+        if ((state & ARRIVED) != 0) {
+            return fleet.lastLeg(id);
+        }
+        if ((state & LAUNCHED) == 0) {
+            return 0;
+        }
+        var flyTime = clock - launchTimes[id];
+        return Math.clamp((int) (flyTime * Nuke.SPEED_ADJUST), 0, fleet.lastLeg(id));
+    }
+
+    /// Legs flown at a given time, as a continuous value.
+    /// @param id   Nuke id
+    /// @param time Simulation time, not after the clock
+    /// @return Fractional leg in `[0, lastLeg]`
+    public float legAt(int id, float time) {
+        if ((states[id] & LAUNCHED) == 0) {
+            return 0;
+        }
+        var flyTime = time - launchTimes[id];
+        return Math.clamp(flyTime * Nuke.SPEED_ADJUST, 0, fleet.lastLeg(id));
+    }
+
+    public boolean isLaunched(int id) {
+        return (states[id] & LAUNCHED) != 0;
+    }
+
+    public boolean isDetonated(int id) {
+        return (states[id] & DETONATED) != 0;
+    }
+
+    public boolean hasReachedDestination(int id) {
+        return (states[id] & ARRIVED) != 0;
+    }
+
+    public boolean isAirborne(int id) {
+        return airborneSlots[id] >= 0;
+    }
+
+    /// Live view over a set of nukes in flight.
+    private class AirborneView extends AbstractList<Nuke> implements RandomAccess {
+        // -1 for the whole fleet
+        private final int partyId;
+
+        AirborneView(int partyId) {
+            this.partyId = partyId;
+        }
+
+        @Override
+        public Nuke get(int index) {
+            if (index < 0 || index >= size()) {
+                throw new IndexOutOfBoundsException(index);
+            }
+            return fleet.nuke(partyId < 0 ? airborne[index] : partyAirborne[partyId][index]);
+        }
+
+        @Override
+        public int size() {
+            return partyId < 0 ? airborneCount : partyAirborneCounts[partyId];
+        }
+    }
+}
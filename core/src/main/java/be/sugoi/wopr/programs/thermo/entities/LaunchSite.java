@@ -1,5 +1,6 @@
 package be.sugoi.wopr.programs.thermo.entities;
 
+import be.sugoi.wopr.WGS84;
 import com.badlogic.gdx.math.Vector2;
 import org.jetbrains.annotations.NotNull;
 
@@ -28,8 +29,8 @@ public final class LaunchSite {
     private final @NotNull String name;
     private final @NotNull String countryCode;
     private final @NotNull Vector2 coord;
+    private final @NotNull Vector2 mercator;
     private final @NotNull Type type;
-    private int remainingCapacity;
 
     public LaunchSite(
         @NotNull String name,
@@ -43,25 +44,8 @@ public final class LaunchSite {
         this.name = name;
         this.countryCode = countryCode;
         this.coord = coord;
+        this.mercator = WGS84.wgs84ToMercator(coord);
         this.type = type;
-        this.remainingCapacity = 0;
-    }
-
-    public void decrementCapacity() {
-        assert remainingCapacity > 0;
-        remainingCapacity--;
-    }
-
-    public boolean isEmpty() {
-        return remainingCapacity == 0;
-    }
-
-    public void setRemainingCapacity(int remainingCapacity) {
-        this.remainingCapacity = remainingCapacity;
-    }
-
-    public int getRemainingCapacity() {
-        return remainingCapacity;
     }
 
     public @NotNull Type getType() {
@@ -80,8 +64,11 @@ public final class LaunchSite {
         return coord;
     }
 
-    public int remainingCapacity() {
-        return remainingCapacity;
+    /// Normalized Mercator coordinates.
+    /// @param out Receives the coordinates
+    /// @return `out`
+    public @NotNull Vector2 mercator(@NotNull Vector2 out) {
+        return out.set(mercator);
     }
 
     @Override
@@ -1,95 +1,86 @@
 package be.sugoi.wopr.programs.thermo.entities;
 
-import be.sugoi.wopr.Trajectory;
+import be.sugoi.wopr.GreatCircle;
 import com.badlogic.gdx.math.Vector2;
 import org.jetbrains.annotations.NotNull;
 
-import java.util.List;
-
-import static com.badlogic.gdx.math.MathUtils.random;
-
 /// A nuclear missile.
-public class Nuke implements Updateable {
-    private static final float SPEED_ADJUST = 0.2f;
-    private static final float MAX_LAUNCH_DELAY = 60.0f;
+///
+/// The nuke describes the missile (origin, destination, trajectory) and is immutable.
+/// Its flight state during a run is held by a [FleetState].
+///
+/// The trajectory is a great circle arc split into legs
+/// of roughly equal length. Positions along it are evaluated on demand.
+public class Nuke {
+    static final float SPEED_ADJUST = 0.2f;
+    private static final int LEGS_PER_RADIAN = 200;
 
     private final @NotNull LaunchSite origin;
     private final @NotNull City destination;
-    private float launchDelay;
-    private List<Vector2> trajectory;
-    private int leg = 0;
-    private boolean launched = false;
-    private boolean detonated = false;
-    private float flyTime = 0;
+    private final @NotNull GreatCircle trajectory;
+    private final int lastLeg;
+    private int id = -1;
 
+    /// @param origin      Launch site
+    /// @param destination Target city
     public Nuke(@NotNull LaunchSite origin, @NotNull City destination) {
         this.origin = origin;
         this.destination = destination;
-        this.launchDelay = random.nextFloat(MAX_LAUNCH_DELAY);
-        computeTrajectory();
+        this.trajectory = new GreatCircle(origin.coord(), destination.coord());
+        this.lastLeg = (int) (trajectory.distance() * LEGS_PER_RADIAN);
     }
 
-    private void computeTrajectory() {
-        var distance = Trajectory.haversine(origin.coord(), destination.coord());
-        var numberOfPoints = (int) (distance * 200);
-        trajectory = Trajectory.generateEquidistantPoints(
-            origin.coord(), destination.coord(), numberOfPoints
-        );
-        trajectory.add(destination.coord());
-    }
-
-    @Override
-    public float update(float delta) {
-        if (!launched || detonated) {
-            return 0;
+    void bind(int id) {
+        if (this.id >= 0) {
+            throw new IllegalStateException("Nuke already belongs to a fleet: " + this);
         }
-        launchDelay = Math.max(0, launchDelay - delta);
-        if (launchDelay > 0) {
-            return 0;
-        }
-        flyTime += delta;
-        setLeg((int) (flyTime * SPEED_ADJUST));
-        return flyTime;
-    }
-
-    public void detonate() {
-        destination.hit();
-        detonated = true;
-    }
-
-    public boolean isDetonated() {
-        return detonated;
+        this.id = id;
     }
 
-    private void setLeg(int leg) {
-        this.leg = Math.clamp(leg, 0, trajectory.size() - 1);
+    /// Nuke id within its fleet
+    public int id() {
+        return id;
     }
 
-    public int getLeg() {
-        return leg;
+    /// Index of the last leg, where the nuke reaches its destination
+    public int lastLeg() {
+        return lastLeg;
     }
 
-    public boolean isLaunched() {
-        return launched;
-    }
-
-    public void launch() {
-        launched = true;
-    }
-
-    public boolean hasReachedDestination() {
-        return leg == trajectory.size() - 1;
+    public @NotNull LaunchSite origin() {
+        return origin;
     }
 
     public @NotNull City destination() {
         return destination;
     }
 
-    public @NotNull Vector2 position() {
-        return trajectory.get(leg);
+    /// Position of the nuke at a given leg of its trajectory.
+    ///
+    /// @param leg Leg index in `[0, lastLeg]`
+    /// @param out Receives the position (lon, lat)
+    /// @return `out`
+    public @NotNull Vector2 positionAt(int leg, @NotNull Vector2 out) {
+        if (leg >= lastLeg) {
+            return destination.coord(out);
+        }
+        return trajectory.pointAt((double) (leg + 1) / (lastLeg + 1), out);
     }
 
-    public @NotNull List<Vector2> trajectory() {
-        return trajectory;
+    /// Position of the nuke between legs.
+    ///
+    /// @param leg Fractional leg in `[0, lastLeg]`, see [FleetState#legAt(int, float)]
+    /// @param out Receives the position (lon, lat)
+    /// @return `out`
+    public @NotNull Vector2 positionAt(float leg, @NotNull Vector2 out) {
+        if (leg >= lastLeg) {
+            return destination.coord(out);
+        }
+        return trajectory.pointAt((leg + 1) / (lastLeg + 1), out);
+    }
+
+    @Override
+    public String toString() {
+        return "Nuke #" + id + " " + origin.name() + " -> " + destination.name();
     }
 }
@@ -0,0 +1,164 @@
+package be.sugoi.wopr.programs.thermo.entities;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/// All the warheads of a scenario, stored as a structure of arrays.
+///
+/// Each [Nuke] is given a dense id when the fleet is built.
+/// The fleet is immutable: it only describes the nukes (party, origin,
+/// destination, flight duration). Their flight state during a run
+/// lives in a [FleetState], so a fleet can be shared by many runs.
+///
+/// Origins and destinations are interned: each distinct launch site
+/// and target city gets an id, and the party hit by each target city is
+/// resolved once at construction.
+public class NukeFleet {
+    private final @NotNull Nuke[] nukes;
+    private final @NotNull List<Nuke> nukeList;
+    private final @NotNull List<Party> parties;
+    private final @NotNull List<LaunchSite> origins;
+    private final @NotNull List<City> destinations;
+
+    // Per nuke
+    private final int[] partyIds;
+    private final int[] originIds;
+    private final int[] destinationIds;
+    private final int[] lastLegs;
+
+    // Per party
+    private final int[] partySizes;
+
+    // Per destination
+    private final int[] targetPartyIds;
+
+    public NukeFleet(@NotNull List<Party> parties) {
+        this.parties = parties;
+        var count = parties.stream().mapToInt(p -> p.nukes().size()).sum();
+        nukes = new Nuke[count];
+        partyIds = new int[count];
+        originIds = new int[count];
+        destinationIds = new int[count];
+        lastLegs = new int[count];
+        partySizes = new int[parties.size()];
+
+        Map<LaunchSite, Integer> originIdsBySite = new IdentityHashMap<>();
+        Map<City, Integer> destinationIdsByCity = new IdentityHashMap<>();
+        var origins = new ArrayList<LaunchSite>();
+        var destinations = new ArrayList<City>();
+
+        int id = 0;
+        for (int partyId = 0; partyId < parties.size(); partyId++) {
+            var party = parties.get(partyId);
+            partySizes[partyId] = party.nukes().size();
+            for (var nuke : party.nukes()) {
+                nuke.bind(id);
+                nukes[id] = nuke;
+                partyIds[id] = partyId;
+                originIds[id] = originIdsBySite.computeIfAbsent(nuke.origin(), site -> {
+                    origins.add(site);
+                    return origins.size() - 1;
+                });
+                destinationIds[id] = destinationIdsByCity.computeIfAbsent(nuke.destination(), city -> {
+                    destinations.add(city);
+                    return destinations.size() - 1;
+                });
+                lastLegs[id] = nuke.lastLeg();
+                id++;
+            }
+        }
+        this.nukeList = Collections.unmodifiableList(Arrays.asList(nukes));
+        this.origins = Collections.unmodifiableList(origins);
+        this.destinations = Collections.unmodifiableList(destinations);
+
+        targetPartyIds = new int[destinations.size()];
+        Arrays.fill(targetPartyIds, -1);
+        for (int partyId = 0; partyId < parties.size(); partyId++) {
+            for (var city : parties.get(partyId).cities()) {
+                var destinationId = destinationIdsByCity.get(city);
+                if (destinationId != null) {
+                    targetPartyIds[destinationId] = partyId;
+                }
+            }
+        }
+    }
+
+    public int size() {
+        return nukes.length;
+    }
+
+    public @NotNull Nuke nuke(int id) {
+        return nukes[id];
+    }
+
+    public @NotNull List<Nuke> nukes() {
+        return nukeList;
+    }
+
+    public @NotNull List<Party> parties() {
+        return parties;
+    }
+
+    public int partyId(int id) {
+        return partyIds[id];
+    }
+
+    public @NotNull Party party(int id) {
+        return parties.get(partyIds[id]);
+    }
+
+    /// Number of nukes of a party.
+    /// @param partyId Party index
+    /// @return Its nukes count
+    public int partySize(int partyId) {
+        return partySizes[partyId];
+    }
+
+    public @NotNull LaunchSite origin(int id) {
+        return origins.get(originIds[id]);
+    }
+
+    public @NotNull City destination(int id) {
+        return destinations.get(destinationIds[id]);
+    }
+
+    /// Id of the destination of a nuke, among the distinct [#destinations()].
+    /// @param id Nuke id
+    /// @return Destination id
+    public int destinationId(int id) {
+        return destinationIds[id];
+    }
+
+    /// Distinct target cities, by destination id
+    public @NotNull List<City> destinations() {
+        return destinations;
+    }
+
+    /// Party owning the destination of a nuke.
+    /// @param id Nuke id
+    /// @return Index of the party being hit
+    public int targetPartyId(int id) {
+        var partyId = targetPartyIds[destinationIds[id]];
+        if (partyId < 0) {
+            throw new IllegalStateException("No party owns the destination of " + nukes[id]);
+        }
+        return partyId;
+    }
+
+    public int lastLeg(int id) {
+        return lastLegs[id];
+    }
+
+    /// Time needed to fly from origin to destination.
+    /// @param id Nuke id
+    /// @return Flight duration
+    public float flightDuration(int id) {
+        return lastLegs[id] / Nuke.SPEED_ADJUST;
+    }
+}
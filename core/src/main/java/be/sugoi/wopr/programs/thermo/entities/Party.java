@@ -1,9 +1,12 @@
 package be.sugoi.wopr.programs.thermo.entities;
 
 import org.jetbrains.annotations.NotNull;
-import java.util.ArrayList;
 import java.util.List;
 
+/// A party in a scenario.
+///
+/// Parties are immutable and shared by every run of a scenario:
+/// damages received are tracked by the run.
 public class Party {
     private final @NotNull String name;
     private final @NotNull String shortName;
@@ -11,7 +14,7 @@ public class Party {
     private final @NotNull List<City> cities;
     private final @NotNull List<LaunchSite> launchSites;
     private final @NotNull List<Nuke> nukes;
-    private final @NotNull List<Detonation> detonations;
+    private final int population;
 
     public Party(
         @NotNull String name,
@@ -34,15 +37,11 @@ public class Party {
         this.cities = cities;
         this.launchSites = launchSites;
         this.nukes = nukes;
-        this.detonations = new ArrayList<>();
-    }
-
-    public int fatalities() {
-        return cities.stream().mapToInt(City::fatalities).sum();
+        this.population = cities.stream().mapToInt(City::population).sum();
     }
 
     public int population() {
-        return cities.stream().mapToInt(City::population).sum();
+        return population;
     }
 
     public @NotNull String name() {
@@ -69,10 +68,6 @@ public class Party {
         return nukes;
     }
 
-    public @NotNull List<Detonation> detonations() {
-        return detonations;
-    }
-
     @Override
     public String toString() {
         return name;
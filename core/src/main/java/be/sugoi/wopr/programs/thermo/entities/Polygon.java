@@ -1,5 +1,8 @@
 package be.sugoi.wopr.programs.thermo.entities;
 
+import be.sugoi.wopr.DouglasPeucker;
+import be.sugoi.wopr.WGS84;
+import com.badlogic.gdx.math.Rectangle;
 import com.badlogic.gdx.math.Vector2;
 import org.jetbrains.annotations.NotNull;
 
@@ -8,34 +11,87 @@ import java.util.List;
 /// A polygon shape.
 ///
 /// Typically used to represent a country.
-/// The points forming the polygon can be either WGS84 or screen coordinates.
+/// The polygon is built from WGS84 coordinates, and only keeps their
+/// normalized Mercator projection and bounding box, computed once, at creation.
+///
+/// The outline can be simplified into levels of detail, a pyramid
+/// of Mercator polylines of decreasing resolution, see [#outline(int)].
+/// Drawing the level matching the zoom keeps the number of vertices
+/// proportional to the screen resolution rather than to the dataset.
+/// Levels are not kept: they are meant to be uploaded to the GPU once.
 public class Polygon {
-    private final @NotNull List<Vector2> points;
+    /// Simplification tolerance of each level of detail, in normalized Mercator units.
+    /// Level 0 is the full resolution; each level halves the resolution of the previous one.
+    public static final float[] LOD_TOLERANCES = {
+        0f, 1 / 32768f, 1 / 16384f, 1 / 8192f, 1 / 4096f, 1 / 2048f, 1 / 1024f
+    };
+
+    // Normalized Mercator coordinates of the points
+    private final float[] xs;
+    private final float[] ys;
+    private final @NotNull Rectangle bounds;
 
     private Polygon(@NotNull List<Vector2> points) {
-        this.points = points;
+        this.xs = new float[points.size()];
+        this.ys = new float[points.size()];
+        for (int i = 0; i < points.size(); i++) {
+            xs[i] = WGS84.lonToMercator(points.get(i).x);
+            ys[i] = WGS84.latToMercator(points.get(i).y);
+        }
+        this.bounds = bounds(xs, ys, points.size());
+    }
+
+    private static Rectangle bounds(float[] xs, float[] ys, int count) {
+        if (count == 0) {
+            return new Rectangle();
+        }
+        var minX = xs[0];
+        var minY = ys[0];
+        var maxX = xs[0];
+        var maxY = ys[0];
+        for (int i = 1; i < count; i++) {
+            minX = Math.min(minX, xs[i]);
+            minY = Math.min(minY, ys[i]);
+            maxX = Math.max(maxX, xs[i]);
+            maxY = Math.max(maxY, ys[i]);
+        }
+        return new Rectangle(minX, minY, maxX - minX, maxY - minY);
+    }
+
+    /// Coarsest level of detail whose error is within a pixel.
+    /// @param pixelSize Size of a screen pixel, in normalized Mercator units
+    /// @return Level of detail
+    public static int lodLevel(float pixelSize) {
+        var level = 0;
+        while (level + 1 < LOD_TOLERANCES.length && LOD_TOLERANCES[level + 1] <= pixelSize) {
+            level++;
+        }
+        return level;
     }
 
+    /// @param points WGS84 coordinates (lon, lat)
+    /// @return The polygon
     public static Polygon of(@NotNull List<Vector2> points) {
         return new Polygon(points);
     }
 
-    /// Returns a list referencing a sub polygon.
+    /// Bounding box, in normalized Mercator coordinates.
     ///
-    /// This method is intended to work around a size limitation of
-    /// [#polyline(float[])]
-    /// @param fromIndex From
-    /// @param toIndex To
-    /// @return A new [Polygon] containing references to the existing points
-    public Polygon subShape(int fromIndex, int toIndex) {
-        return Polygon.of(points.subList(fromIndex, toIndex));
+    /// Also bounds every level of detail, whose points are a subset of the polygon ones.
+    /// @param out Receives the bounding box
+    /// @return `out`
+    public @NotNull Rectangle bounds(@NotNull Rectangle out) {
+        return out.set(bounds);
     }
 
-    public @NotNull List<Vector2> getPoints() {
-        return points;
+    /// Simplify the outline. Allocates.
+    /// @param level Level of detail, see [#LOD_TOLERANCES]
+    /// @return Mercator coordinates, interleaved `x0, y0, x1, y1...`
+    public float[] outline(int level) {
+        return DouglasPeucker.simplify(xs, ys, xs.length, LOD_TOLERANCES[level]);
     }
 
     public int count() {
-        return points.size();
+        return xs.length;
     }
 }
@@ -0,0 +1,47 @@
+package be.sugoi.wopr.programs.thermo.entities;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.SplittableRandom;
+
+/// Random number streams of a scenario, derived from a single seed.
+///
+/// Each concern draws from its own stream, so that e.g. adding a damage roll
+/// does not shift the launch delays. Streams are split in a fixed order:
+/// the same seed always yields the same sequences.
+///
+/// Streams are not thread-safe. They belong to one scenario,
+/// which is simulated by one thread at a time.
+public final class RandomStreams {
+    private final long seed;
+    private final @NotNull SplittableRandom targeting;
+    private final @NotNull SplittableRandom timing;
+    private final @NotNull SplittableRandom damage;
+
+    public RandomStreams(long seed) {
+        this.seed = seed;
+        var root = new SplittableRandom(seed);
+        this.targeting = root.split();
+        this.timing = root.split();
+        this.damage = root.split();
+    }
+
+    public long seed() {
+        return seed;
+    }
+
+    /// Stream for target selection (e.g. first strike)
+    public @NotNull SplittableRandom targeting() {
+        return targeting;
+    }
+
+    /// Stream for launch timing
+    public @NotNull SplittableRandom timing() {
+        return timing;
+    }
+
+    /// Stream for damage rolls
+    public @NotNull SplittableRandom damage() {
+        return damage;
+    }
+}
@@ -0,0 +1,50 @@
+package be.sugoi.wopr.programs.thermo.entities.scenario;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.stream.IntStream;
+
+/// Result of a target allocation.
+///
+/// @param sites  Launch site id of each warhead
+/// @param report Allocation time and quality
+public record Allocation(int @NotNull [] sites, @NotNull Report report) {
+
+    /// Allocation time and quality.
+    ///
+    /// @param strategy      Allocator name
+    /// @param warheads      Number of warheads allocated
+    /// @param durationNanos Time spent allocating
+    /// @param totalDistance Sum of the flight distances (rad)
+    public record Report(@NotNull String strategy, int warheads, long durationNanos, double totalDistance) {
+
+        /// Mean flight distance (rad)
+        public double meanDistance() {
+            return warheads == 0 ? 0 : totalDistance / warheads;
+        }
+
+        public double durationMillis() {
+            return durationNanos / 1_000_000.0;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s: %d warheads in %.1f ms, mean distance %.4f rad",
+                strategy, warheads, durationMillis(), meanDistance());
+        }
+    }
+
+    static @NotNull Allocation of(
+        @NotNull String strategy,
+        int @NotNull [] sites,
+        @NotNull UnitVectors siteVectors,
+        @NotNull UnitVectors targetVectors,
+        long startNanos
+    ) {
+        var duration = System.nanoTime() - startNanos;
+        var total = IntStream.range(0, sites.length).parallel()
+            .mapToDouble(t -> siteVectors.angle(sites[t], targetVectors, t))
+            .sum();
+        return new Allocation(sites, new Report(strategy, sites.length, duration, total));
+    }
+}
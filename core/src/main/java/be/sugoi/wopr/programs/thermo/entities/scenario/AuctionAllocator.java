@@ -0,0 +1,193 @@
+package be.sugoi.wopr.programs.thermo.entities.scenario;
+
+import be.sugoi.wopr.programs.thermo.entities.City;
+import be.sugoi.wopr.programs.thermo.entities.LaunchSite;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/// Auction allocation: approximately minimizes the total flight distance.
+///
+/// Only launch sites are chosen. Targets are taken as given, by priority
+/// (see [TargetStream]): the allocator never trades a target for a nearer one,
+/// as that would change which cities are hit, not only where they are hit from.
+/// The minimum is over the (site, warhead) pairs for these targets.
+///
+/// A forward auction (Bertsekas) where warheads bid for launch slots.
+/// Each site sells as many slots as its capacity, at the price of its lowest
+/// accepted bid once full. A warhead bids for the site with the best value
+/// (shortest distance minus price), raising its price by the margin over
+/// the second best site plus [#EPSILON]. Outbid warheads bid again.
+///
+/// Prices only rise on full sites, so sites left with spare capacity stay free
+/// and the allocation is within `warheads * EPSILON` of the optimum.
+/// (Scaling epsilon down would converge faster, but breaks that guarantee
+/// when capacities exceed the number of warheads, the usual case.)
+///
+/// Bids of all unassigned warheads are computed in parallel from the same prices,
+/// then resolved sequentially in warhead order, so the result is deterministic.
+public class AuctionAllocator implements TargetAllocator {
+    static final String NAME = "auction";
+    // Radians, about 6 km
+    static final double EPSILON = 1e-3;
+
+    @Override
+    public @NotNull String name() {
+        return NAME;
+    }
+
+    @Override
+    public @NotNull Allocation allocate(@NotNull List<LaunchSite> sites, int[] capacities, @NotNull List<City> targets) {
+        var start = System.nanoTime();
+        var totalCapacity = Arrays.stream(capacities).asLongStream().sum();
+        if (totalCapacity < targets.size()) {
+            throw new IllegalStateException("no launch site available");
+        }
+        var siteVectors = UnitVectors.of(sites, LaunchSite::coord);
+        var targetVectors = UnitVectors.of(targets, City::coord);
+        var openSites = IntStream.range(0, sites.size()).filter(j -> capacities[j] > 0).toArray();
+
+        // Distances, per warhead then per open site
+        var siteCount = openSites.length;
+        var distances = new double[targets.size() * siteCount];
+        IntStream.range(0, targets.size()).parallel().forEach(target -> {
+            for (int i = 0; i < siteCount; i++) {
+                distances[target * siteCount + i] = siteVectors.angle(openSites[i], targetVectors, target);
+            }
+        });
+
+        var prices = new double[sites.size()];
+        var slots = new Slots[sites.size()];
+        for (var site : openSites) {
+            slots[site] = new Slots(Math.min(capacities[site], targets.size()));
+        }
+        var assignment = new int[targets.size()];
+
+        var unassigned = IntStream.range(0, targets.size()).toArray();
+        var bidSites = new int[targets.size()];
+        var bids = new double[targets.size()];
+        while (unassigned.length > 0) {
+            // Bids, from the current prices
+            var bidders = unassigned;
+            IntStream.range(0, bidders.length).parallel().forEach(k ->
+                bid(bidders[k], k, distances, openSites, prices, bidSites, bids));
+
+            // Resolve, in warhead order
+            var outbid = new int[bidders.length];
+            var outbidCount = 0;
+            for (int k = 0; k < bidders.length; k++) {
+                var target = bidders[k];
+                if (bids[k] <= prices[bidSites[k]]) {
+                    // Stale bid, prices have risen meanwhile: bid again
+                    bid(target, k, distances, openSites, prices, bidSites, bids);
+                }
+                var site = bidSites[k];
+                var siteSlots = slots[site];
+                if (siteSlots.isFull()) {
+                    outbid[outbidCount++] = siteSlots.replaceLowest(bids[k], target);
+                } else {
+                    siteSlots.add(bids[k], target);
+                }
+                assignment[target] = site;
+                if (siteSlots.isFull()) {
+                    prices[site] = siteSlots.lowestBid();
+                }
+            }
+            unassigned = Arrays.copyOf(outbid, outbidCount);
+        }
+        return Allocation.of(NAME, assignment, siteVectors, targetVectors, start);
+    }
+
+    /// Bid of a warhead for its best site.
+    ///
+    /// The bid raises the site price by the value margin over the second best site, plus [#EPSILON].
+    private static void bid(
+        int target,
+        int k,
+        double[] distances,
+        int[] openSites,
+        double[] prices,
+        int[] bidSites,
+        double[] bids
+    ) {
+        var siteCount = openSites.length;
+        var bestSite = -1;
+        var best = Double.NEGATIVE_INFINITY;
+        var second = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < siteCount; i++) {
+            var site = openSites[i];
+            var value = -distances[target * siteCount + i] - prices[site];
+            if (value > best) {
+                second = best;
+                best = value;
+                bestSite = site;
+            } else if (value > second) {
+                second = value;
+            }
+        }
+        var margin = second == Double.NEGATIVE_INFINITY ? 0 : best - second;
+        bidSites[k] = bestSite;
+        bids[k] = prices[bestSite] + margin + EPSILON;
+    }
+
+    /// Accepted bids of a site: a min-heap of (bid, warhead).
+    private static class Slots {
+        private final double[] bids;
+        private final int[] targets;
+        private int size = 0;
+
+        Slots(int capacity) {
+            bids = new double[capacity];
+            targets = new int[capacity];
+        }
+
+        boolean isFull() {
+            return size == bids.length;
+        }
+
+        double lowestBid() {
+            return bids[0];
+        }
+
+        void add(double bid, int target) {
+            int i = size++;
+            while (i > 0) {
+                int parent = (i - 1) >>> 1;
+                if (bids[parent] <= bid) {
+                    break;
+                }
+                bids[i] = bids[parent];
+                targets[i] = targets[parent];
+                i = parent;
+            }
+            bids[i] = bid;
+            targets[i] = target;
+        }
+
+        /// Replace the lowest bid.
+        /// @return The outbid warhead
+        int replaceLowest(double bid, int target) {
+            var outbid = targets[0];
+            int i = 0;
+            int half = size >>> 1;
+            while (i < half) {
+                int child = 2 * i + 1;
+                int right = child + 1;
+                if (right < size && bids[right] < bids[child]) {
+                    child = right;
+                }
+                if (bids[child] >= bid) {
+                    break;
+                }
+                bids[i] = bids[child];
+                targets[i] = targets[child];
+                i = child;
+            }
+            bids[i] = bid;
+            targets[i] = target;
+            return outbid;
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package be.sugoi.wopr.programs.thermo.entities.scenario;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/// Time-ordered queue of scheduled events.
+///
+/// A binary min-heap over primitive arrays: each entry is a time
+/// and an `int` event code. Entries with the same time are ordered
+/// by code, so that the order of processing never depends on
+/// insertion order.
+class EventQueue {
+    private double[] times;
+    private int[] events;
+    private int size = 0;
+
+    EventQueue(int initialCapacity) {
+        times = new double[Math.max(1, initialCapacity)];
+        events = new int[times.length];
+    }
+
+    void add(double time, int event) {
+        if (size == times.length) {
+            times = Arrays.copyOf(times, size * 2);
+            events = Arrays.copyOf(events, size * 2);
+        }
+        int i = size++;
+        // Sift up
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (!before(time, event, times[parent], events[parent])) {
+                break;
+            }
+            times[i] = times[parent];
+            events[i] = events[parent];
+            i = parent;
+        }
+        times[i] = time;
+        events[i] = event;
+    }
+
+    /// Remove every event, keeping the capacity.
+    void clear() {
+        size = 0;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    int size() {
+        return size;
+    }
+
+    /// Time of the earliest event.
+    double peekTime() {
+        if (size == 0) {
+            throw new NoSuchElementException();
+        }
+        return times[0];
+    }
+
+    /// Remove the earliest event.
+    /// @return Its code
+    int poll() {
+        if (size == 0) {
+            throw new NoSuchElementException();
+        }
+        int head = events[0];
+        size--;
+        double time = times[size];
+        int event = events[size];
+        // Sift down
+        int i = 0;
+        int half = size >>> 1;
+        while (i < half) {
+            int child = 2 * i + 1;
+            int right = child + 1;
+            if (right < size && before(times[right], events[right], times[child], events[child])) {
+                child = right;
+            }
+            if (!before(times[child], events[child], time, event)) {
+                break;
+            }
+            times[i] = times[child];
+            events[i] = events[child];
+            i = child;
+        }
+        times[i] = time;
+        events[i] = event;
+        return head;
+    }
+
+    private static boolean before(double time1, int event1, double time2, int event2) {
+        return time1 < time2 || (time1 == time2 && event1 < event2);
+    }
+}
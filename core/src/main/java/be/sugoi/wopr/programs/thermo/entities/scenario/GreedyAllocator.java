@@ -0,0 +1,44 @@
+package be.sugoi.wopr.programs.thermo.entities.scenario;
+
+import be.sugoi.wopr.programs.thermo.entities.City;
+import be.sugoi.wopr.programs.thermo.entities.LaunchSite;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+/// Greedy allocation: by priority, each warhead takes the nearest site left.
+///
+/// The nearest site of every target is computed in parallel.
+/// The sequential pass only searches again when that site is exhausted.
+/// Fast, but the last warheads may be sent from far away.
+public class GreedyAllocator implements TargetAllocator {
+    static final String NAME = "greedy";
+
+    @Override
+    public @NotNull String name() {
+        return NAME;
+    }
+
+    @Override
+    public @NotNull Allocation allocate(@NotNull List<LaunchSite> sites, int[] capacities, @NotNull List<City> targets) {
+        var start = System.nanoTime();
+        var siteVectors = UnitVectors.of(sites, LaunchSite::coord);
+        var targetVectors = UnitVectors.of(targets, City::coord);
+        var nearest = IntStream.range(0, targets.size()).parallel()
+            .map(t -> LaunchSiteIndex.nearest(siteVectors, targetVectors, t))
+            .toArray();
+
+        var index = new LaunchSiteIndex(siteVectors, capacities);
+        var assignment = new int[targets.size()];
+        for (int t = 0; t < targets.size(); t++) {
+            if (nearest[t] >= 0 && index.hasCapacity(nearest[t])) {
+                index.take(nearest[t]);
+                assignment[t] = nearest[t];
+            } else {
+                assignment[t] = index.takeNearest(targetVectors, t);
+            }
+        }
+        return Allocation.of(NAME, assignment, siteVectors, targetVectors, start);
+    }
+}
@@ -0,0 +1,99 @@
+package be.sugoi.wopr.programs.thermo.entities.scenario;
+
+import org.jetbrains.annotations.NotNull;
+
+/// Nearest launch site lookup, among the sites with remaining capacity.
+///
+/// Sites are stored as unit vectors on the sphere. The nearest site
+/// along a great circle is the one with the largest dot product,
+/// so a lookup costs three multiplications per site and no trigonometry.
+/// Sites are dropped from the index as soon as they run out of capacity.
+class LaunchSiteIndex {
+    private final @NotNull UnitVectors sites;
+    private final int[] remaining;
+    // Ids of the sites with remaining capacity, and slot of each id (-1 if absent)
+    private final int[] available;
+    private final int[] slots;
+    private int size = 0;
+
+    /// @param sites      Launch sites
+    /// @param capacities Capacity of each site
+    LaunchSiteIndex(@NotNull UnitVectors sites, int[] capacities) {
+        this.sites = sites;
+        this.remaining = capacities.clone();
+        this.available = new int[sites.size()];
+        this.slots = new int[sites.size()];
+        for (int site = 0; site < sites.size(); site++) {
+            if (remaining[site] > 0) {
+                slots[site] = size;
+                available[size++] = site;
+            } else {
+                slots[site] = -1;
+            }
+        }
+    }
+
+    /// Nearest site to a target, regardless of capacities.
+    ///
+    /// Ties go to the lowest site id.
+    ///
+    /// @param sites   Sites
+    /// @param targets Targets
+    /// @param target  Target id
+    /// @return Site id
+    static int nearest(@NotNull UnitVectors sites, @NotNull UnitVectors targets, int target) {
+        int nearest = -1;
+        var best = Double.NEGATIVE_INFINITY;
+        for (int site = 0; site < sites.size(); site++) {
+            var dot = sites.dot(site, targets, target);
+            if (dot > best) {
+                best = dot;
+                nearest = site;
+            }
+        }
+        return nearest;
+    }
+
+    boolean hasCapacity(int site) {
+        return remaining[site] > 0;
+    }
+
+    /// Take one missile from the site nearest to a target.
+    ///
+    /// @param targets Targets
+    /// @param target  Target id
+    /// @return The site id
+    /// @throws IllegalStateException If all sites are empty
+    int takeNearest(@NotNull UnitVectors targets, int target) {
+        if (size == 0) {
+            throw new IllegalStateException("no launch site available");
+        }
+        int nearest = -1;
+        var best = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < size; i++) {
+            var site = available[i];
+            var dot = sites.dot(site, targets, target);
+            if (dot > best || (dot == best && site < nearest)) {
+                best = dot;
+                nearest = site;
+            }
+        }
+        take(nearest);
+        return nearest;
+    }
+
+    /// Take one missile from a site.
+    /// @param site Site id, must have remaining capacity
+    void take(int site) {
+        if (remaining[site] <= 0) {
+            throw new IllegalStateException("launch site exhausted: " + site);
+        }
+        if (--remaining[site] == 0) {
+            var slot = slots[site];
+            var last = available[--size];
+            available[slot] = last;
+            slots[last] = slot;
+            slots[site] = -1;
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package be.sugoi.wopr.programs.thermo.entities.scenario;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.CompletableFuture;
+
+/// A scenario of the scenarios file, whose template is built in the background.
+///
+/// Name and description are read from the file at once,
+/// so scenarios can be listed before they are built.
+public final class ScenarioEntry {
+    private final @NotNull String name;
+    private final @NotNull String description;
+    private final @NotNull CompletableFuture<ScenarioTemplate> template;
+
+    ScenarioEntry(
+        @NotNull String name,
+        @NotNull String description,
+        @NotNull CompletableFuture<ScenarioTemplate> template
+    ) {
+        this.name = name;
+        this.description = description;
+        this.template = template;
+    }
+
+    public @NotNull String name() {
+        return name;
+    }
+
+    public @NotNull String description() {
+        return description;
+    }
+
+    /// Whether the template has been built
+    public boolean isReady() {
+        return template.isDone();
+    }
+
+    /// The scenario template, waiting for it to be built if needed.
+    /// @return The template
+    public @NotNull ScenarioTemplate template() {
+        return template.join();
+    }
+}
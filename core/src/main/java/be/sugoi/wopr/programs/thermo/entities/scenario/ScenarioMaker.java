@@ -1,6 +1,5 @@
 package be.sugoi.wopr.programs.thermo.entities.scenario;
 
-import be.sugoi.wopr.Trajectory;
 import be.sugoi.wopr.programs.thermo.entities.*;
 import be.sugoi.wopr.programs.thermo.screens.MapView;
 import be.sugoi.wopr.utils.AssertionCheck;
@@ -10,35 +9,94 @@ import org.jetbrains.annotations.NotNull;
 import org.json.JSONArray;
 import org.json.JSONObject;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Comparator;
 import java.util.List;
-import java.util.function.Predicate;
-import java.util.stream.Collectors;
+import java.util.concurrent.CompletableFuture;
+import java.util.logging.Logger;
 import java.util.stream.IntStream;
 
-import static com.badlogic.gdx.math.MathUtils.random;
-
-
 public class ScenarioMaker {
+    public static final String FILENAME = "scenarios.json";
     private static final int SUBMARINE_LAUNCH_CAPACITY = 20;
 
+    private static final Logger logger = Logger.getLogger(ScenarioMaker.class.getName());
+
     private final @NotNull Cities cities;
     private final @NotNull Countries countries;
+    private final @NotNull TargetAllocator allocator;
 
     public ScenarioMaker(@NotNull Cities cities, @NotNull Countries countries) {
+        this(cities, countries, new GreedyAllocator());
+    }
+
+    /// @param cities    Cities
+    /// @param countries Countries
+    /// @param allocator Default target allocator, unless a scenario sets its own (`allocation`)
+    public ScenarioMaker(@NotNull Cities cities, @NotNull Countries countries, @NotNull TargetAllocator allocator) {
         this.cities = cities;
         this.countries = countries;
+        this.allocator = allocator;
     }
 
-    public List<Scenario> load() {
+    /// Load scenarios from the application internal files.
+    ///
+    /// Scenarios are immutable templates: load them once
+    /// and start as many runs as needed.
+    ///
+    /// @return Scenarios
+    public List<ScenarioTemplate> load() {
         var text = loadYaml();
         var json = parse(text);
         return extractScenariosFromJSON(json);
     }
 
+    /// Load scenarios from the application internal files, in the background.
+    ///
+    /// Entries are returned at once, in file order; each template
+    /// is built by a worker of the common pool. Launch sites are
+    /// parsed beforehand and shared by all templates.
+    ///
+    /// @return Scenario entries
+    public List<ScenarioEntry> loadAsync() {
+        var root = parse(loadYaml());
+        var launchSites = parseLaunchSites(root.getJSONArray("launchSites"));
+        var jsonScenarios = root.getJSONArray("scenarios");
+        return IntStream.range(0, jsonScenarios.length())
+            .mapToObj(jsonScenarios::getJSONObject)
+            .map(jsonScenario -> new ScenarioEntry(
+                jsonScenario.getString("short"),
+                jsonScenario.getString("description"),
+                CompletableFuture.supplyAsync(() -> extractScenarioFromJSON(jsonScenario, launchSites))))
+            .toList();
+    }
+
+    /// Load scenarios from the file system, without libGDX.
+    /// @param assets Assets directory
+    /// @return Scenarios
+    /// @throws IOException If the file cannot be read
+    public List<ScenarioTemplate> load(@NotNull Path assets) throws IOException {
+        var text = Files.readString(assets.resolve(FILENAME));
+        return extractScenariosFromJSON(parse(text));
+    }
+
+    /// Build a single scenario.
+    ///
+    /// @param text  Scenarios file content (JSON)
+    /// @param index Scenario index in the file
+    /// @return The scenario
+    public @NotNull ScenarioTemplate loadScenario(@NotNull String text, int index) {
+        var root = parse(text);
+        var jsonScenario = root.getJSONArray("scenarios").getJSONObject(index);
+        return extractScenarioFromJSON(jsonScenario, parseLaunchSites(root.getJSONArray("launchSites")));
+    }
+
     private String loadYaml() {
-        var handle = Gdx.files.internal("scenarios.json");
+        var handle = Gdx.files.internal(FILENAME);
         return handle.readString();
     }
 
@@ -50,9 +108,10 @@ public class ScenarioMaker {
      * Parse launch sites from JSON.
      * </p>
      * Launch sites are stored separately, so that they can be reused across scenarios.
+     * Sites hold no capacity: it is computed for each allocation, see {@link #capacities}.
      *
      * @param jsonLaunchSites JSON root containing launch sites
-     * @return List of sites
+     * @return Immutable list of sites
      */
     private List<LaunchSite> parseLaunchSites(JSONArray jsonLaunchSites) {
         List<LaunchSite> launchSites = new ArrayList<>();
@@ -73,19 +132,22 @@ public class ScenarioMaker {
                 ));
             }
         }
-        return launchSites;
+        return List.copyOf(launchSites);
     }
 
-    private List<Scenario> extractScenariosFromJSON(JSONObject root) {
-        var allLaunchSites = parseLaunchSites(root.getJSONArray("launchSites"));
+    /// Scenarios are built in parallel. Building involves no randomness
+    /// and results are collected in file order: they do not depend on
+    /// the number of threads.
+    private List<ScenarioTemplate> extractScenariosFromJSON(JSONObject root) {
+        var launchSites = parseLaunchSites(root.getJSONArray("launchSites"));
         var jsonScenarios = root.getJSONArray("scenarios");
         return IntStream.range(0, jsonScenarios.length())
-            .mapToObj(jsonScenarios::getJSONObject)
-            .map(it -> extractScenarioFromJSON(it, allLaunchSites))
+            .parallel()
+            .mapToObj(i -> extractScenarioFromJSON(jsonScenarios.getJSONObject(i), launchSites))
             .toList();
     }
 
-    private Scenario extractScenarioFromJSON(JSONObject jsonScenario, List<LaunchSite> allLaunchSites) {
+    private ScenarioTemplate extractScenarioFromJSON(JSONObject jsonScenario, List<LaunchSite> allLaunchSites) {
         var jsonParties = jsonScenario.getJSONArray("parties");
         var partiesCount = jsonParties.length();
         if (partiesCount < 2) {
@@ -94,7 +156,10 @@ public class ScenarioMaker {
         var partiesData = IntStream.range(0, partiesCount)
             .mapToObj(i -> parseParty(jsonParties.getJSONObject(i)))
             .toList();
-        var parties = partiesData.stream().map(data -> {
+        var jsonAllocation = jsonScenario.optString("allocation", null);
+        var scenarioAllocator = jsonAllocation != null ? TargetAllocator.byName(jsonAllocation) : allocator;
+        // Parties own disjoint launch sites: they are built in parallel
+        var allocatedParties = partiesData.parallelStream().map(data -> {
                 var enemiesCountryCodes = partiesData.stream()
                     .filter(it -> data != it)
                     .filter(it -> data.enemiesNames().contains(it.name()))
@@ -104,88 +169,120 @@ public class ScenarioMaker {
                 var launchSites = allLaunchSites.stream()
                     .filter(ls -> data.countryCodes().contains(ls.countryCode()))
                     .toList();
-                return createParty(data, launchSites, enemiesCountryCodes);
+                return createParty(data, launchSites, enemiesCountryCodes, scenarioAllocator);
             })
             .toList();
+        var parties = allocatedParties.stream().map(AllocatedParty::party).toList();
+        var reports = allocatedParties.stream().map(AllocatedParty::report).toList();
 
-        var firstStrike = parties.get(jsonScenario.optIntegerObject(
-            "firstStrike", random.nextInt(parties.size())
-        ));
+        // Drawn for each run unless set
+        var firstStrike = jsonScenario.optIntegerObject("firstStrike", ScenarioTemplate.RANDOM_FIRST_STRIKE);
         var title = jsonScenario.getString("short");
         var description = jsonScenario.getString("description");
 
         var initialMapViewStr = jsonScenario.getString("initialMapView");
         var initialMapView = MapView.getByName(initialMapViewStr);
 
-        return new Scenario(title, description, parties, firstStrike, initialMapView);
+        return new ScenarioTemplate(title, description, parties, firstStrike, initialMapView, reports);
+    }
+
+    private record AllocatedParty(Party party, Allocation.Report report) {
     }
 
-    private Party createParty(ScenarioPartyData data, List<LaunchSite> launchSites, List<String> enemiesCountryCodes) {
+    private AllocatedParty createParty(
+        ScenarioPartyData data,
+        List<LaunchSite> launchSites,
+        List<String> enemiesCountryCodes,
+        TargetAllocator allocator
+    ) {
         // Retrieve country members
         var countries = data.countryCodes().stream()
             .map(this.countries::findByCode)
             .toList();
 
         // Retrieve this party's cities
-        var cities = this.cities.getCities().stream()
-            .filter(city -> data.countryCodes().contains(city.countryCode()))
+        var table = this.cities.table();
+        var ownCountries = countryMask(table, data.countryCodes());
+        var cities = table.cities().parallelStream()
+            .filter(city -> ownCountries[city.countryId()])
             .toList();
 
         // Retrieve enemy cities
-        var enemyCities = this.cities.getCities().stream()
-            .filter(city -> enemiesCountryCodes.contains(city.countryCode()))
+        var enemyCountries = countryMask(table, enemiesCountryCodes);
+        var enemyCities = table.cities().parallelStream()
+            .filter(city -> enemyCountries[city.countryId()])
             .sorted(Comparator.comparingInt(City::population).reversed())
-            .collect(Collectors.toCollection(ArrayList::new));
+            .toList();
+        if (enemyCities.isEmpty() && data.warheads() > 0) {
+            throw new IllegalStateException("No enemy city for [" + data.name() + "]");
+        }
 
         // If there are more warheads than enemy cities,
         // hit the cities multiple times
-        if (enemyCities.size() < data.warheads()) {
-            int i = data.warheads() / enemyCities.size();
-            //noinspection CollectionAddedToSelf
-            IntStream.range(0, i).forEach(it -> enemyCities.addAll(enemyCities));
-        }
-
-        // Set the launch sites capacities.
-        // Submarines and fixed
-        // Facilities should be balanced.
-        launchSites.stream()
-            .filter(it -> it.getType() == LaunchSite.Type.SUBMARINE)
-            .forEach(it -> it.setRemainingCapacity(SUBMARINE_LAUNCH_CAPACITY));
-        var facilitiesCount = launchSites.stream()
-            .filter(it -> it.getType() == LaunchSite.Type.FACILITY)
-            .count();
-        int facilityCapacity = (int) (data.warheads() / Math.max(1, facilitiesCount - 1));
-        launchSites.stream()
-            .filter(it -> it.getType() == LaunchSite.Type.FACILITY)
-            .forEach(it -> it.setRemainingCapacity(facilityCapacity));
+        var targetStream = new TargetStream(enemyCities, data.multiHit());
 
         // Create nukes.
-        // Enemy cities are targeted once based on population
-        // (multiple hits should be more effective).
-        // The launch site is selected based on distance.
+        // Enemy cities are targeted based on population, once per round
+        // unless the party sets a multi-hit weighting.
+        // The launch site is selected by the allocator.
+        // Trajectories are computed in parallel chunks, in target order.
+        var capacities = capacities(launchSites, data.warheads());
         if (AssertionCheck.areAssertionsEnabled()) {
-            var totalCapacity = launchSites.stream().mapToInt(LaunchSite::remainingCapacity).sum();
+            var totalCapacity = Arrays.stream(capacities).sum();
             assert totalCapacity >= data.warheads()
                 : String.format(
                 "insufficient launch sites for [%s]: %d vs %d",
                 data.name(), totalCapacity, data.warheads());
         }
-        var nukes = new ArrayList<>(IntStream.range(0, data.warheads())
-            .mapToObj(i -> {
-                var target = enemyCities.removeFirst();
-                var site = launchSites.stream()
-                    .filter(Predicate.not(LaunchSite::isEmpty))
-                    .min(Comparator.comparingDouble(it -> Trajectory.haversine(it.coord(), target.coord())))
-                    .orElseThrow(() -> new IllegalStateException("no launch site available"));
-                site.decrementCapacity();
-                return new Nuke(site, target);
-            })
-            .toList());
+        var targets = targetStream.take(data.warheads());
+        var allocation = allocator.allocate(launchSites, capacities, targets);
+        logger.info(String.format("[%s] %s", data.name(), allocation.report()));
+        var nukes = IntStream.range(0, data.warheads())
+            .parallel()
+            .mapToObj(i -> new Nuke(launchSites.get(allocation.sites()[i]), targets.get(i)))
+            .toList();
 
         var name = data.name();
         var shortName = data.shortName();
 
-        return new Party(name, shortName, countries, cities, launchSites, nukes);
+        var party = new Party(name, shortName, countries, cities, launchSites, nukes);
+        return new AllocatedParty(party, allocation.report());
+    }
+
+    /// Launch capacity of each site, for an allocation.
+    ///
+    /// Capacities are not stored in the sites, which are shared by
+    /// the scenario template and all its runs.
+    /// Submarines have a fixed capacity, facilities share the warheads
+    /// so that they stay balanced, mobile sites launch nothing.
+    ///
+    /// @param launchSites Launch sites of a party
+    /// @param warheads    Warheads of the party
+    /// @return Capacity of each site
+    private static int[] capacities(List<LaunchSite> launchSites, int warheads) {
+        var facilitiesCount = launchSites.stream()
+            .filter(it -> it.getType() == LaunchSite.Type.FACILITY)
+            .count();
+        int facilityCapacity = (int) (warheads / Math.max(1, facilitiesCount - 1));
+        return launchSites.stream()
+            .mapToInt(it -> switch (it.getType()) {
+                case SUBMARINE -> SUBMARINE_LAUNCH_CAPACITY;
+                case FACILITY -> facilityCapacity;
+                case MOBILE -> 0;
+            })
+            .toArray();
+    }
+
+    /// Countries of the city table, flagged if they belong to the given ones
+    private static boolean[] countryMask(CityTable table, List<String> countryCodes) {
+        var mask = new boolean[table.countryCount()];
+        for (var countryCode : countryCodes) {
+            var countryId = table.countryIdOf(countryCode);
+            if (countryId >= 0) {
+                mask[countryId] = true;
+            }
+        }
+        return mask;
     }
 
     private ScenarioPartyData parseParty(JSONObject jsonParty) {
@@ -216,6 +313,11 @@ public class ScenarioMaker {
             launchSitesNames = List.of();
         }
 
-        return new ScenarioPartyData(name, shortName, countryCodes, launchSitesNames, warheads, enemiesNames);
+        var jsonMultiHit = jsonParty.optJSONObject("multiHit");
+        var multiHit = jsonMultiHit != null ?
+            new TargetStream.Weighting(jsonMultiHit.getInt("cities"), jsonMultiHit.getInt("hits")) :
+            TargetStream.Weighting.NONE;
+
+        return new ScenarioPartyData(name, shortName, countryCodes, launchSitesNames, warheads, enemiesNames, multiHit);
     }
 }
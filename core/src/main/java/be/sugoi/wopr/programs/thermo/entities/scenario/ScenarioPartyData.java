@@ -16,6 +16,7 @@ public record ScenarioPartyData(
     @NotNull List<String> countryCodes,
     @NotNull List<String> launchSitesNames,
     int warheads,
-    @NotNull List<String> enemiesNames
+    @NotNull List<String> enemiesNames,
+    @NotNull TargetStream.Weighting multiHit
 ) {
 }
@@ -0,0 +1,255 @@
+package be.sugoi.wopr.programs.thermo.entities.scenario;
+
+import be.sugoi.wopr.programs.thermo.entities.City;
+import be.sugoi.wopr.programs.thermo.entities.CityDamage;
+import be.sugoi.wopr.programs.thermo.entities.Detonation;
+import be.sugoi.wopr.programs.thermo.entities.FleetState;
+import be.sugoi.wopr.programs.thermo.entities.Nuke;
+import be.sugoi.wopr.programs.thermo.entities.NukeFleet;
+import be.sugoi.wopr.programs.thermo.entities.Party;
+import be.sugoi.wopr.programs.thermo.entities.RandomStreams;
+import be.sugoi.wopr.programs.thermo.screens.MapView;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/// A run of a [ScenarioTemplate].
+///
+/// The run only holds what changes while simulating: nuke flight states,
+/// city damages, detonations and scheduled events. Everything else is read
+/// from the template. Restarting resets these in place, at a cost
+/// proportional to the number of warheads.
+///
+/// Detonations are only counted, unless the run is animated, see [#setAnimated(boolean)].
+/// An animated run keeps the detonations still animating, and hands over
+/// the finished ones: it never holds more than what is on screen.
+///
+/// Aggregates (fatalities, detonations, nukes in flight) are maintained
+/// as nukes launch and detonate, and exposed as live, read-only views.
+///
+/// Randomness is drawn from the run [RandomStreams] only:
+/// two runs with the same seed have identical outcomes.
+public class ScenarioRun {
+    public static final float RETALIATION_DELAY = 60f;
+
+    private final @NotNull ScenarioTemplate template;
+    private final @NotNull NukeFleet fleet;
+    private final @NotNull FleetState state;
+    private final @NotNull CityDamage damage;
+    private final @NotNull ScenarioScheduler scheduler;
+    // Detonations still animating, if animated
+    private final @NotNull List<Detonation> activeDetonations = new ArrayList<>();
+    private final @NotNull List<Detonation> activeDetonationsView = Collections.unmodifiableList(activeDetonations);
+    private boolean animated = false;
+    private int detonations = 0;
+    private final @NotNull Map<Party, List<Nuke>> airborneNukesPerParty;
+    private final int[] partyFatalities;
+    private final int[] partyHits;
+    private @NotNull RandomStreams random;
+    private int firstStrikeId;
+    private int fatalities = 0;
+
+    ScenarioRun(@NotNull ScenarioTemplate template, long seed) {
+        this.template = template;
+        this.fleet = template.fleet();
+        this.random = new RandomStreams(seed);
+        this.firstStrikeId = template.firstStrikeId(random.targeting());
+        this.state = new FleetState(fleet, random.timing());
+        this.damage = new CityDamage(fleet.destinations());
+        this.scheduler = new ScenarioScheduler(state, firstStrikeId, RETALIATION_DELAY);
+        var parties = template.parties();
+        this.partyFatalities = new int[parties.size()];
+        this.partyHits = new int[parties.size()];
+        Map<Party, List<Nuke>> airborne = new LinkedHashMap<>();
+        for (int partyId = 0; partyId < parties.size(); partyId++) {
+            airborne.put(parties.get(partyId), state.airborne(partyId));
+        }
+        this.airborneNukesPerParty = Collections.unmodifiableMap(airborne);
+    }
+
+    /// Start the run over, with new random streams.
+    ///
+    /// Nothing is rebuilt: the template is untouched
+    /// and the run state is reset in place. The run is no longer animated.
+    ///
+    /// @param seed Seed of the run random streams
+    /// @return This run
+    public @NotNull ScenarioRun restart(long seed) {
+        random = new RandomStreams(seed);
+        firstStrikeId = template.firstStrikeId(random.targeting());
+        state.reset(random.timing());
+        scheduler.reset(firstStrikeId);
+        damage.reset();
+        activeDetonations.clear();
+        animated = false;
+        detonations = 0;
+        Arrays.fill(partyFatalities, 0);
+        Arrays.fill(partyHits, 0);
+        fatalities = 0;
+        return this;
+    }
+
+    /// Advance the simulation.
+    ///
+    /// Nukes due are launched and the ones reaching their destination are detonated.
+    ///
+    /// @param clock Simulation time since the first strike
+    public void update(float clock) {
+        scheduler.advanceTo(clock, this::detonate);
+    }
+
+    /// Resolve the run at once, without animation.
+    ///
+    /// Every remaining event is processed in time order, which is the order
+    /// of an animated run: with the same seed, the outcome is identical.
+    ///
+    /// @return Simulation time of the last detonation
+    public double resolve() {
+        update(Float.POSITIVE_INFINITY);
+        return scheduler.lastEventTime();
+    }
+
+    /// Whether every nuke has been launched and has detonated.
+    public boolean isTerminated() {
+        return scheduler.isDone();
+    }
+
+    /// Detonate a nuke on its destination.
+    ///
+    /// @param id Id of the nuke to detonate.
+    /// Must have reached its destination.
+    private void detonate(int id) {
+        state.detonate(id);
+        var targetId = fleet.targetPartyId(id);
+        var fatalities = damage.hit(fleet.destinationId(id), random.damage());
+        detonations++;
+        if (animated) {
+            activeDetonations.add(new Detonation(fleet.destination(id), 1.0f));
+        }
+        partyFatalities[targetId] += fatalities;
+        partyHits[targetId]++;
+        this.fatalities += fatalities;
+    }
+
+    public @NotNull List<Nuke> allNukes() {
+        return fleet.nukes();
+    }
+
+    /// @return A live, read-only view of the nukes in flight
+    public @NotNull List<Nuke> allAirborneNukes() {
+        return state.airborne();
+    }
+
+    /// @return Live, read-only views of the nukes in flight, per party
+    public @NotNull Map<Party, List<Nuke>> airborneNukesPerParty() {
+        return airborneNukesPerParty;
+    }
+
+    /// Whether detonations are kept while they animate, for a renderer.
+    ///
+    /// Off by default: headless runs only count detonations.
+    /// @param animated Whether to keep the next detonations
+    public void setAnimated(boolean animated) {
+        this.animated = animated;
+    }
+
+    /// Advance the animation of the active detonations,
+    /// and hand over the finished ones.
+    ///
+    /// @param delta   Time since the last frame
+    /// @param retired Consumer of the cities of the finished detonations
+    public void animateDetonations(float delta, @NotNull Consumer<City> retired) {
+        for (int i = activeDetonations.size() - 1; i >= 0; i--) {
+            var detonation = activeDetonations.get(i);
+            detonation.update(delta);
+            if (detonation.isFinished()) {
+                retired.accept(detonation.city());
+                // Order does not matter: swap with the last one
+                activeDetonations.set(i, activeDetonations.getLast());
+                activeDetonations.removeLast();
+            }
+        }
+    }
+
+    /// @return A live, read-only view of the detonations still animating,
+    /// in arrival order until the first one finishes
+    public @NotNull List<Detonation> activeDetonations() {
+        return activeDetonationsView;
+    }
+
+    /// Number of detonations so far
+    public int detonations() {
+        return detonations;
+    }
+
+    public int fatalities() {
+        return fatalities;
+    }
+
+    /// Fatalities suffered by a party so far.
+    /// @param party One of the scenario parties
+    /// @return Fatalities
+    public int fatalities(@NotNull Party party) {
+        return partyFatalities[partyId(party)];
+    }
+
+    /// Detonations received by a party so far.
+    /// @param party One of the scenario parties
+    /// @return Number of hits
+    public int hits(@NotNull Party party) {
+        return partyHits[partyId(party)];
+    }
+
+    private int partyId(Party party) {
+        var partyId = template.parties().indexOf(party);
+        if (partyId < 0) {
+            throw new IllegalArgumentException("Not a party of " + name() + ": " + party);
+        }
+        return partyId;
+    }
+
+    /// Damages suffered by the targeted cities so far
+    public @NotNull CityDamage damage() {
+        return damage;
+    }
+
+    /// Flight state of the nukes
+    public @NotNull FleetState state() {
+        return state;
+    }
+
+    public @NotNull ScenarioTemplate template() {
+        return template;
+    }
+
+    public @NotNull List<Party> parties() {
+        return template.parties();
+    }
+
+    public @NotNull Party firstStrike() {
+        return template.parties().get(firstStrikeId);
+    }
+
+    public @NotNull String name() {
+        return template.name();
+    }
+
+    public @NotNull String description() {
+        return template.description();
+    }
+
+    /// Seed the run random streams were derived from
+    public long seed() {
+        return random.seed();
+    }
+
+    public @NotNull MapView initialView() {
+        return template.initialView();
+    }
+}
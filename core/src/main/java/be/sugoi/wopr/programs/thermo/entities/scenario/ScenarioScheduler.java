@@ -0,0 +1,112 @@
+package be.sugoi.wopr.programs.thermo.entities.scenario;
+
+import be.sugoi.wopr.programs.thermo.entities.FleetState;
+import be.sugoi.wopr.programs.thermo.entities.NukeFleet;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.function.IntConsumer;
+
+/// Launch and detonation scheduler of a scenario.
+///
+/// Every upcoming event is kept in a time-ordered queue:
+///
+/// - a launch, once the nuke launch delay has expired,
+/// - an arrival, once the nuke flight duration has elapsed,
+/// - the retaliation, after which all parties may fire.
+///
+/// Advancing the clock only touches the events that are due.
+/// The scenario is over when the queue is empty.
+///
+/// The scheduler can be reset for a new run, keeping its queue storage.
+class ScenarioScheduler {
+    // Event codes: the retaliation sorts before any launch or arrival at the same time,
+    // then events of a nuke are ordered by id, its launch before its arrival
+    static final int RETALIATION = -1;
+
+    private final @NotNull FleetState state;
+    private final @NotNull NukeFleet fleet;
+    private final float retaliationDelay;
+    private final @NotNull EventQueue queue;
+    private int firstStrikeId;
+    private double lastEventTime = 0;
+
+    ScenarioScheduler(@NotNull FleetState state, int firstStrikeId, float retaliationDelay) {
+        this.state = state;
+        this.fleet = state.fleet();
+        this.retaliationDelay = retaliationDelay;
+        this.queue = new EventQueue(fleet.size() + 1);
+        reset(firstStrikeId);
+    }
+
+    /// Schedule the first strike again, from the current launch delays.
+    /// @param firstStrikeId Index of the party striking first
+    void reset(int firstStrikeId) {
+        this.firstStrikeId = firstStrikeId;
+        queue.clear();
+        lastEventTime = 0;
+        for (int id = 0; id < fleet.size(); id++) {
+            if (fleet.partyId(id) == firstStrikeId) {
+                queue.add(state.launchDelay(id), launchEvent(id));
+            }
+        }
+        queue.add(retaliationDelay, RETALIATION);
+    }
+
+    /// Process every event due at the given time.
+    ///
+    /// @param clock     Simulation time since the first strike
+    /// @param onArrival Receives the ids of the nukes reaching their destination, in time order
+    void advanceTo(float clock, @NotNull IntConsumer onArrival) {
+        state.setClock(clock);
+        while (!queue.isEmpty() && queue.peekTime() <= clock) {
+            var time = queue.peekTime();
+            var event = queue.poll();
+            lastEventTime = time;
+            if (event == RETALIATION) {
+                retaliate(time);
+            } else if (isLaunch(event)) {
+                var id = nukeId(event);
+                state.launch(id, (float) time);
+                queue.add(time + fleet.flightDuration(id), arrivalEvent(id));
+            } else {
+                var id = nukeId(event);
+                state.arrive(id);
+                onArrival.accept(id);
+            }
+        }
+    }
+
+    private void retaliate(double time) {
+        for (int id = 0; id < fleet.size(); id++) {
+            if (fleet.partyId(id) != firstStrikeId) {
+                queue.add(time + state.launchDelay(id), launchEvent(id));
+            }
+        }
+    }
+
+    /// Time of the last event processed.
+    double lastEventTime() {
+        return lastEventTime;
+    }
+
+    /// Whether no event is left to process.
+    boolean isDone() {
+        return queue.isEmpty();
+    }
+
+    static int launchEvent(int id) {
+        return id << 1;
+    }
+
+    static int arrivalEvent(int id) {
+        return (id << 1) | 1;
+    }
+
+    static boolean isLaunch(int event) {
+        return (event & 1) == 0;
+    }
+
+    static int nukeId(int event) {
+        return event >>> 1;
+    }
+}
@@ -0,0 +1,88 @@
+package be.sugoi.wopr.programs.thermo.entities.scenario;
+
+import be.sugoi.wopr.programs.thermo.entities.NukeFleet;
+import be.sugoi.wopr.programs.thermo.entities.Party;
+import be.sugoi.wopr.programs.thermo.screens.MapView;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
+import java.util.random.RandomGenerator;
+
+/// An immutable scenario, as described in the scenarios file.
+///
+/// The template holds everything that does not change from one run
+/// to the next: parties, allocated nukes and their trajectories.
+/// It is built once and shared by every [ScenarioRun], possibly
+/// by several threads at a time.
+public class ScenarioTemplate {
+    /// First strike index meaning "drawn at random for each run"
+    public static final int RANDOM_FIRST_STRIKE = -1;
+
+    private final @NotNull String name;
+    private final @NotNull String description;
+    private final @NotNull List<Party> parties;
+    private final int firstStrike;
+    private final @NotNull MapView initialMapView;
+    private final @NotNull List<Allocation.Report> allocationReports;
+    private final @NotNull NukeFleet fleet;
+
+    /// @param firstStrike Index of the party striking first, or [#RANDOM_FIRST_STRIKE]
+    public ScenarioTemplate(
+        @NotNull String name,
+        @NotNull String description,
+        @NotNull List<Party> parties,
+        int firstStrike,
+        @NotNull MapView initialMapView,
+        @NotNull List<Allocation.Report> allocationReports)
+    {
+        if (firstStrike < RANDOM_FIRST_STRIKE || firstStrike >= parties.size()) {
+            throw new IllegalArgumentException("Invalid first strike: " + firstStrike);
+        }
+        this.name = name;
+        this.description = description;
+        this.parties = List.copyOf(parties);
+        this.firstStrike = firstStrike;
+        this.initialMapView = initialMapView;
+        this.allocationReports = List.copyOf(allocationReports);
+        this.fleet = new NukeFleet(this.parties);
+    }
+
+    /// Start a new run of this scenario.
+    /// @param seed Seed of the run random streams
+    /// @return A run, ready to be simulated
+    public @NotNull ScenarioRun newRun(long seed) {
+        return new ScenarioRun(this, seed);
+    }
+
+    /// Party striking first in a run.
+    /// @param targeting Source of the draw, if the scenario does not set one
+    /// @return Party index
+    int firstStrikeId(@NotNull RandomGenerator targeting) {
+        return firstStrike != RANDOM_FIRST_STRIKE ? firstStrike : targeting.nextInt(parties.size());
+    }
+
+    public @NotNull NukeFleet fleet() {
+        return fleet;
+    }
+
+    public @NotNull List<Party> parties() {
+        return parties;
+    }
+
+    public @NotNull String name() {
+        return name;
+    }
+
+    public @NotNull String description() {
+        return description;
+    }
+
+    /// How warheads were allocated to launch sites, per party (same order as parties)
+    public @NotNull List<Allocation.Report> allocationReports() {
+        return allocationReports;
+    }
+
+    public @NotNull MapView initialView() {
+        return initialMapView;
+    }
+}
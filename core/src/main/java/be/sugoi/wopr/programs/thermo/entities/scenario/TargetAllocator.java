@@ -0,0 +1,37 @@
+package be.sugoi.wopr.programs.thermo.entities.scenario;
+
+import be.sugoi.wopr.programs.thermo.entities.City;
+import be.sugoi.wopr.programs.thermo.entities.LaunchSite;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
+
+/// Assigns warheads to launch sites.
+///
+/// Each warhead has a target city. The allocator picks a launch site for each,
+/// without exceeding the site capacities, trying to keep flights short.
+/// Allocators must be deterministic: the same input gives the same allocation.
+public interface TargetAllocator {
+
+    @NotNull String name();
+
+    /// Allocate warheads.
+    ///
+    /// @param sites      Launch sites
+    /// @param capacities Capacity of each site
+    /// @param targets    Target of each warhead, by priority
+    /// @return The allocation
+    /// @throws IllegalStateException If capacities are insufficient
+    @NotNull Allocation allocate(@NotNull List<LaunchSite> sites, int[] capacities, @NotNull List<City> targets);
+
+    /// Find an allocator by name.
+    /// @param name `greedy` or `auction`
+    /// @return The allocator
+    static @NotNull TargetAllocator byName(@NotNull String name) {
+        return switch (name) {
+            case GreedyAllocator.NAME -> new GreedyAllocator();
+            case AuctionAllocator.NAME -> new AuctionAllocator();
+            default -> throw new IllegalArgumentException("Unknown allocator: " + name);
+        };
+    }
+}
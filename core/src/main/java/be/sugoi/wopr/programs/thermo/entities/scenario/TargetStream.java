@@ -0,0 +1,77 @@
+package be.sugoi.wopr.programs.thermo.entities.scenario;
+
+import be.sugoi.wopr.programs.thermo.entities.City;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/// Targets in priority order, cycling through the cities on demand.
+///
+/// Each round goes through the cities in priority order. With a multi-hit
+/// [Weighting], the first cities of the list are targeted several times
+/// per round. The stream is endless: a large arsenal aimed at a few cities
+/// goes round as many times as needed, holding only the city list.
+public class TargetStream implements Iterator<City> {
+
+    /// Extra hits for the biggest cities.
+    ///
+    /// @param cities Number of cities, from the top of the list, hit several times
+    /// @param hits   Hits per round for these cities
+    public record Weighting(int cities, int hits) {
+        public static final Weighting NONE = new Weighting(0, 1);
+
+        public Weighting {
+            if (cities < 0 || hits < 1) {
+                throw new IllegalArgumentException("Invalid weighting: " + cities + " cities, " + hits + " hits");
+            }
+        }
+
+        public int hitsPerRound(int rank) {
+            return rank < cities ? hits : 1;
+        }
+    }
+
+    private final @NotNull List<City> cities;
+    private final @NotNull Weighting weighting;
+    private int rank = 0;
+    private int hit = 0;
+
+    /// @param cities    Cities, by priority
+    /// @param weighting Multi-hit weighting
+    TargetStream(@NotNull List<City> cities, @NotNull Weighting weighting) {
+        this.cities = cities;
+        this.weighting = weighting;
+    }
+
+    @Override
+    public boolean hasNext() {
+        return !cities.isEmpty();
+    }
+
+    @Override
+    public @NotNull City next() {
+        if (cities.isEmpty()) {
+            throw new NoSuchElementException("no city to target");
+        }
+        var city = cities.get(rank);
+        if (++hit == weighting.hitsPerRound(rank)) {
+            hit = 0;
+            rank = (rank + 1) % cities.size();
+        }
+        return city;
+    }
+
+    /// Take the next targets.
+    /// @param count Number of targets
+    /// @return Targets, one per warhead
+    @NotNull List<City> take(int count) {
+        var targets = new ArrayList<City>(count);
+        for (int i = 0; i < count; i++) {
+            targets.add(next());
+        }
+        return targets;
+    }
+}
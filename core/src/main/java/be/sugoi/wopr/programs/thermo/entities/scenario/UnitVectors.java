@@ -0,0 +1,56 @@
+package be.sugoi.wopr.programs.thermo.entities.scenario;
+
+import com.badlogic.gdx.math.Vector2;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+
+import static java.lang.Math.*;
+
+/// Points on the unit sphere, as parallel coordinate arrays.
+///
+/// The angle between two points is the arc cosine of their dot product,
+/// so comparing distances needs no trigonometry.
+final class UnitVectors {
+    final double[] xs;
+    final double[] ys;
+    final double[] zs;
+
+    private UnitVectors(int size) {
+        xs = new double[size];
+        ys = new double[size];
+        zs = new double[size];
+    }
+
+    /// Convert points, in parallel.
+    /// @param items Items to convert
+    /// @param coord Coordinates of an item (lon, lat in degrees)
+    /// @return Unit vectors, in item order
+    static <T> @NotNull UnitVectors of(@NotNull List<T> items, @NotNull Function<T, Vector2> coord) {
+        var vectors = new UnitVectors(items.size());
+        IntStream.range(0, items.size()).parallel().forEach(i -> {
+            var c = coord.apply(items.get(i));
+            var lon = toRadians(c.x);
+            var lat = toRadians(c.y);
+            vectors.xs[i] = cos(lat) * cos(lon);
+            vectors.ys[i] = cos(lat) * sin(lon);
+            vectors.zs[i] = sin(lat);
+        });
+        return vectors;
+    }
+
+    int size() {
+        return xs.length;
+    }
+
+    double dot(int i, @NotNull UnitVectors other, int j) {
+        return xs[i] * other.xs[j] + ys[i] * other.ys[j] + zs[i] * other.zs[j];
+    }
+
+    /// Angle between two points (rad)
+    double angle(int i, @NotNull UnitVectors other, int j) {
+        return acos(Math.clamp(dot(i, other, j), -1.0, 1.0));
+    }
+}
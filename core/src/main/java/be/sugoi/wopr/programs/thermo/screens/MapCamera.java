@@ -0,0 +1,198 @@
+package be.sugoi.wopr.programs.thermo.screens;
+
+import com.badlogic.gdx.math.Interpolation;
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.math.Vector2;
+import org.jetbrains.annotations.NotNull;
+
+/// Where the map is looked at from, and how cluttered it is allowed to be.
+///
+/// The camera moves between [MapView] presets with an eased transition,
+/// and can be zoomed and panned freely. Settings (city thresholds and sizes,
+/// detonation factor) follow continuously:
+///
+/// - during a transition, they are interpolated between the start and the target;
+/// - when zooming out freely, they are interpolated between the last preset
+///   and [MapView#WORLD], by zoom level; zooming in keeps the preset settings.
+///
+/// Zoom and populations are interpolated geometrically, as they span
+/// orders of magnitude. Sizes are interpolated linearly.
+///
+/// Only numbers change: nothing is rebuilt when the camera moves.
+final class MapCamera {
+    /// Duration of a transition between presets (seconds)
+    static final float TRANSITION_DURATION = 0.75f;
+    /// Zoom factor change per mouse wheel notch
+    static final float WHEEL_ZOOM_STEP = 1.2f;
+    static final float MIN_ZOOM_FACTOR = 0.8f;
+    static final float MAX_ZOOM_FACTOR = 24.0f;
+
+    private static final Interpolation EASING = Interpolation.smooth;
+
+    // Current state
+    private final @NotNull Vector2 offset = new Vector2();
+    private float zoomFactor;
+    private final @NotNull Settings settings = new Settings();
+    // Last preset targeted, anchor of free zoom
+    private @NotNull MapView preset = MapView.WORLD;
+
+    // Transition in progress, if any
+    private boolean transitioning = false;
+    private float elapsed;
+    private final @NotNull Vector2 fromOffset = new Vector2();
+    private float fromZoomFactor;
+    private final @NotNull Settings fromSettings = new Settings();
+
+    // Interpolated settings of a view
+    private static final class Settings {
+        float citySquareSize;
+        float cityPopulationThresholdMinimum;
+        float cityPopulationThresholdLarge;
+        float countryPopulationThresholdLarge;
+        float detonationFactor;
+
+        void set(Settings other) {
+            citySquareSize = other.citySquareSize;
+            cityPopulationThresholdMinimum = other.cityPopulationThresholdMinimum;
+            cityPopulationThresholdLarge = other.cityPopulationThresholdLarge;
+            countryPopulationThresholdLarge = other.countryPopulationThresholdLarge;
+            detonationFactor = other.detonationFactor;
+        }
+
+        void set(MapView view) {
+            citySquareSize = view.citySquareSize;
+            cityPopulationThresholdMinimum = view.cityPopulationThresholdMinimum;
+            cityPopulationThresholdLarge = view.cityPopulationThresholdLarge;
+            countryPopulationThresholdLarge = view.countryPopulationThresholdLarge;
+            detonationFactor = view.detonationFactor;
+        }
+
+        void interpolate(Settings from, MapView to, float alpha) {
+            citySquareSize = MathUtils.lerp(from.citySquareSize, to.citySquareSize, alpha);
+            cityPopulationThresholdMinimum = geometric(
+                from.cityPopulationThresholdMinimum, to.cityPopulationThresholdMinimum, alpha);
+            cityPopulationThresholdLarge = geometric(
+                from.cityPopulationThresholdLarge, to.cityPopulationThresholdLarge, alpha);
+            countryPopulationThresholdLarge = geometric(
+                from.countryPopulationThresholdLarge, to.countryPopulationThresholdLarge, alpha);
+            detonationFactor = MathUtils.lerp(from.detonationFactor, to.detonationFactor, alpha);
+        }
+    }
+
+    /// Move to a preset at once.
+    void jumpTo(@NotNull MapView view) {
+        transitioning = false;
+        preset = view;
+        offset.set(view.offset);
+        zoomFactor = view.zoomFactor;
+        settings.set(view);
+    }
+
+    /// Start an eased transition to a preset, from wherever the camera is.
+    void transitionTo(@NotNull MapView view) {
+        transitioning = true;
+        elapsed = 0;
+        preset = view;
+        fromOffset.set(offset);
+        fromZoomFactor = zoomFactor;
+        fromSettings.set(settings);
+    }
+
+    /// Advance the transition in progress, if any.
+    /// @param delta Time since the last update (seconds)
+    void update(float delta) {
+        if (!transitioning) {
+            return;
+        }
+        elapsed += delta;
+        if (elapsed >= TRANSITION_DURATION) {
+            jumpTo(preset);
+            return;
+        }
+        var alpha = EASING.apply(elapsed / TRANSITION_DURATION);
+        offset.set(fromOffset).lerp(preset.offset, alpha);
+        zoomFactor = geometric(fromZoomFactor, preset.zoomFactor, alpha);
+        settings.interpolate(fromSettings, preset, alpha);
+    }
+
+    /// Zoom around a point of the screen, which stays in place.
+    ///
+    /// Interrupts any transition.
+    ///
+    /// @param notches Mouse wheel amount: positive zooms out, negative zooms in
+    /// @param anchor  Point that stays in place, in world (screen) coordinates
+    /// @param center  Center of the world, around which the map is scaled
+    /// @param height  World height, the zoom of a factor of 1
+    void zoomAt(float notches, @NotNull Vector2 anchor, @NotNull Vector2 center, float height) {
+        transitioning = false;
+        var oldZoom = zoomFactor * height;
+        zoomFactor = Math.clamp(
+            zoomFactor * (float) Math.pow(WHEEL_ZOOM_STEP, -notches), MIN_ZOOM_FACTOR, MAX_ZOOM_FACTOR);
+        var newZoom = zoomFactor * height;
+        // The Mercator point under the anchor, (anchor - center) / zoom - offset + center, is kept
+        offset.add(
+            (anchor.x - center.x) / newZoom - (anchor.x - center.x) / oldZoom,
+            (anchor.y - center.y) / newZoom - (anchor.y - center.y) / oldZoom);
+        updateFreeSettings();
+    }
+
+    /// Pan the map, as dragged on the screen.
+    ///
+    /// Interrupts any transition.
+    ///
+    /// @param dx     Horizontal drag, in world (screen) units
+    /// @param dy     Vertical drag, in world (screen) units
+    /// @param height World height, the zoom of a factor of 1
+    void panBy(float dx, float dy, float height) {
+        transitioning = false;
+        var zoom = zoomFactor * height;
+        offset.add(dx / zoom, dy / zoom);
+    }
+
+    private void updateFreeSettings() {
+        var world = MapView.WORLD;
+        if (preset == world || zoomFactor >= preset.zoomFactor) {
+            settings.set(preset);
+            return;
+        }
+        // 0 at the preset zoom, 1 at the world zoom and beyond
+        var alpha = Math.clamp(
+            (float) (Math.log(preset.zoomFactor / zoomFactor) / Math.log(preset.zoomFactor / world.zoomFactor)),
+            0f, 1f);
+        fromSettings.set(preset);
+        settings.interpolate(fromSettings, world, alpha);
+    }
+
+    private static float geometric(float from, float to, float alpha) {
+        return (float) (from * Math.pow(to / from, alpha));
+    }
+
+    /// Map offset. Must not be modified.
+    @NotNull Vector2 offset() {
+        return offset;
+    }
+
+    float zoomFactor() {
+        return zoomFactor;
+    }
+
+    float citySquareSize() {
+        return settings.citySquareSize;
+    }
+
+    int cityPopulationThresholdMinimum() {
+        return Math.round(settings.cityPopulationThresholdMinimum);
+    }
+
+    int cityPopulationThresholdLarge() {
+        return Math.round(settings.cityPopulationThresholdLarge);
+    }
+
+    int countryPopulationThresholdLarge() {
+        return Math.round(settings.countryPopulationThresholdLarge);
+    }
+
+    float detonationFactor() {
+        return settings.detonationFactor;
+    }
+}
@@ -1,7 +1,6 @@
 package be.sugoi.wopr.programs.thermo.screens;
 
 import be.sugoi.wopr.Main;
-import be.sugoi.wopr.programs.thermo.entities.City;
 import be.sugoi.wopr.programs.thermo.entities.Party;
 import be.sugoi.wopr.terminal.InvalidDirective;
 import be.sugoi.wopr.terminal.TerminalScreen;
@@ -55,7 +54,7 @@ public class OutcomeScreen extends TerminalScreen {
     }
 
     private int tableWidth() {
-        return FIRST_COL_WIDTH + g.getScenario().parties().size() * COL_WIDTH;
+        return FIRST_COL_WIDTH + g.getRun().parties().size() * COL_WIDTH;
     }
 
     private Label renderTableHorizontalLine() {
@@ -77,7 +76,7 @@ public class OutcomeScreen extends TerminalScreen {
     }
 
     private Label renderParties() {
-        var str = g.getScenario().parties().stream()
+        var str = g.getRun().parties().stream()
             .map(Party::shortName)
             .map(name -> rpad(name, COL_WIDTH))
             .collect(joining());
@@ -92,13 +91,13 @@ public class OutcomeScreen extends TerminalScreen {
     }
 
     private Label renderReceivedSubHeader() {
-        var subHeader = rpad("Received:", FIRST_COL_WIDTH) + fill(g.getScenario().parties().size() * COL_WIDTH);
+        var subHeader = rpad("Received:", FIRST_COL_WIDTH) + fill(g.getRun().parties().size() * COL_WIDTH);
         return toLabel(subHeader, Align.center);
     }
 
     private Label renderFatalitiesCount() {
-        var str = g.getScenario().parties().stream()
-            .map(Party::fatalities)
+        var str = g.getRun().parties().stream()
+            .map(g.getRun()::fatalities)
             .map(OutcomeScreen::formatToMillions)
             .map(it -> rpad(it, COL_WIDTH))
             .collect(joining());
@@ -107,9 +106,9 @@ public class OutcomeScreen extends TerminalScreen {
     }
 
     private Label renderFatalitiesPercent() {
-        var str = g.getScenario().parties().stream()
+        var str = g.getRun().parties().stream()
             .map(party -> {
-                var killRate = (float) party.fatalities() / party.population();
+                var killRate = (float) g.getRun().fatalities(party) / party.population();
                 return StringUtils.formatToPercentage(killRate);
             })
             .map(it -> rpad(it, COL_WIDTH))
@@ -119,9 +118,7 @@ public class OutcomeScreen extends TerminalScreen {
     }
 
     private Label renderTotalFatalitiesCount() {
-        var total = g.getScenario().parties().stream()
-            .mapToInt(Party::fatalities)
-            .sum();
+        var total = g.getRun().fatalities();
         var str = "TOTAL: " + StringUtils.formatWithThousandSeparator(total);
         var style = createBaseStyle();
         style.font = g.fm.getFont(Main.FONT_XL);
@@ -130,10 +127,8 @@ public class OutcomeScreen extends TerminalScreen {
     }
 
     private Label renderDetonationsCount() {
-        var str = g.getScenario().parties().stream()
-            .map(p -> p.cities().stream()
-                .mapToInt(City::hits)
-                .sum())
+        var str = g.getRun().parties().stream()
+            .map(g.getRun()::hits)
             .map(n -> Integer.toString(n))
             .map(it -> rpad(it, COL_WIDTH))
             .collect(joining());
@@ -0,0 +1,162 @@
+package be.sugoi.wopr.programs.thermo.screens;
+
+import be.sugoi.wopr.Main;
+import be.sugoi.wopr.Projection;
+import be.sugoi.wopr.programs.thermo.entities.City;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.glutils.FrameBuffer;
+import com.badlogic.gdx.graphics.glutils.ShapeRenderer;
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.ScreenUtils;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+
+/// Scars left by the detonations whose animation is over.
+///
+/// Scars are burned into an offscreen texture for a given view,
+/// and the texture is drawn as a single quad: drawing costs the same
+/// whatever the number of scars. Only the scars added since the last
+/// frame are burned.
+///
+/// While the view moves (transition, zoom, pan), the texture is drawn
+/// shifted and scaled from the view it was burned for, which the view
+/// projection allows since it only translates and scales. Scars outside
+/// that view, and the scar size, catch up once the view has stayed still
+/// for a frame: the texture is then burned again for it.
+/// It is also rebuilt if the viewport size changes.
+class ScarLayer implements Disposable {
+    private static final float WORLD_CENTER_X = Main.WORLD_WIDTH / 2;
+    private static final float WORLD_CENTER_Y = Main.WORLD_HEIGHT / 2;
+
+    private final @NotNull Main g;
+    private final float intensity;
+    private final int segments;
+
+    // Ids of the scarred cities, in order of retirement
+    private int[] scars = new int[256];
+    private int count = 0;
+
+    private FrameBuffer buffer;
+    private int width = 0;
+    private int height = 0;
+    // View the texture was burned for, and how many scars it holds
+    private final @NotNull Vector2 burnedOffset = new Vector2();
+    private float burnedZoom = Float.NaN;
+    private float burnedRadius = Float.NaN;
+    private int burned = 0;
+    // View of the previous frame
+    private final @NotNull Vector2 lastOffset = new Vector2();
+    private float lastZoom = Float.NaN;
+    private float lastRadius = Float.NaN;
+    private final @NotNull Vector2 position = new Vector2();
+
+    /// @param g         Game
+    /// @param intensity Light intensity of a scar
+    /// @param segments  Circle segments
+    ScarLayer(@NotNull Main g, float intensity, int segments) {
+        this.g = g;
+        this.intensity = intensity;
+        this.segments = segments;
+    }
+
+    /// Leave a scar on a city.
+    /// @param city City hit, from the game cities
+    void add(@NotNull City city) {
+        if (count == scars.length) {
+            scars = Arrays.copyOf(scars, count * 2);
+        }
+        scars[count++] = city.id();
+    }
+
+    /// Remove every scar, e.g. for a new run.
+    void clear() {
+        count = 0;
+        burned = 0;
+        burnedZoom = Float.NaN;
+    }
+
+    /// Draw the scars.
+    ///
+    /// Must be called outside of any batch or shape rendering,
+    /// with the viewport applied.
+    ///
+    /// @param offset Map offset of the view
+    /// @param zoom   Map zoom of the view
+    /// @param radius Scar radius
+    void draw(@NotNull Vector2 offset, float zoom, float radius) {
+        var still = offset.equals(lastOffset) && zoom == lastZoom && radius == lastRadius;
+        lastOffset.set(offset);
+        lastZoom = zoom;
+        lastRadius = radius;
+        if (count == 0) {
+            return;
+        }
+        var screenWidth = Math.max(1, g.fitViewport.getScreenWidth());
+        var screenHeight = Math.max(1, g.fitViewport.getScreenHeight());
+        if (buffer == null || screenWidth != width || screenHeight != height) {
+            disposeBuffer();
+            width = screenWidth;
+            height = screenHeight;
+            buffer = new FrameBuffer(Pixmap.Format.RGBA8888, width, height, false);
+            burned = 0;
+            burnedZoom = Float.NaN;
+        }
+        var burnedForView = offset.equals(burnedOffset) && zoom == burnedZoom && radius == burnedRadius;
+        if (!burnedForView && (still || Float.isNaN(burnedZoom))) {
+            burnedOffset.set(offset);
+            burnedZoom = zoom;
+            burnedRadius = radius;
+            burned = 0;
+        }
+        if (burned < count) {
+            burn();
+        }
+        // Screen position is `(mercator + offset - center) * zoom + center`:
+        // from the burned view to this one, scale by the zoom ratio and shift by the offset change
+        var scale = zoom / burnedZoom;
+        var x = (offset.x - burnedOffset.x) * zoom + WORLD_CENTER_X * (1 - scale);
+        var y = (offset.y - burnedOffset.y) * zoom + WORLD_CENTER_Y * (1 - scale);
+        var texture = buffer.getColorBufferTexture();
+        g.batch.begin();
+        // Frame buffer textures are upside down
+        g.batch.draw(texture, x, y, Main.WORLD_WIDTH * scale, Main.WORLD_HEIGHT * scale,
+            0, 0, width, height, false, true);
+        g.batch.end();
+    }
+
+    // Burn the new scars, for the view the texture holds
+    private void burn() {
+        buffer.begin();
+        if (burned == 0) {
+            ScreenUtils.clear(0, 0, 0, 0);
+        }
+        g.shape.begin(ShapeRenderer.ShapeType.Filled);
+        g.shape.setColor(intensity, intensity, intensity, 1.0f);
+        var table = g.cities.table();
+        for (int i = burned; i < count; i++) {
+            var id = scars[i];
+            Projection.mercatorToScreenProjection(
+                table.mercatorX(id), table.mercatorY(id), burnedOffset, burnedZoom, position);
+            g.shape.circle(position.x, position.y, burnedRadius, segments);
+        }
+        g.shape.end();
+        buffer.end();
+        // Ending the frame buffer resets the viewport to the whole window
+        g.fitViewport.apply();
+        burned = count;
+    }
+
+    private void disposeBuffer() {
+        if (buffer != null) {
+            buffer.dispose();
+            buffer = null;
+        }
+    }
+
+    @Override
+    public void dispose() {
+        disposeBuffer();
+    }
+}
@@ -10,6 +10,11 @@ import org.jetbrains.annotations.NotNull;
 import java.util.ArrayList;
 import java.util.List;
 
+/// Details of the selected scenario.
+///
+/// Name and description are shown at once. Belligerents are shown, and the
+/// scenario can be started, once its template has been built in the background:
+/// the screen never waits for it.
 public class ScenarioDetailsScreen extends TerminalScreen {
     private List<String> scenarioDetailsLines;
 
@@ -20,7 +25,7 @@ public class ScenarioDetailsScreen extends TerminalScreen {
     @Override
     public void show() {
         super.show();
-        scenarioDetailsLines = buildScenarioDetailsLines(g.getScenario().description());
+        scenarioDetailsLines = buildScenarioDetailsLines(g.getScenarioEntry().description());
     }
 
     private List<String> buildScenarioDetailsLines(String text) {
@@ -58,7 +63,7 @@ public class ScenarioDetailsScreen extends TerminalScreen {
     }
 
     private Label renderTitle() {
-        return toLabel(g.getScenario().name(), Align.left, g.theme.color4());
+        return toLabel(g.getScenarioEntry().name(), Align.left, g.theme.color4());
     }
 
     private List<Label> renderScenarioDetails() {
@@ -66,6 +71,9 @@ public class ScenarioDetailsScreen extends TerminalScreen {
     }
 
     private List<Label> renderBelligerents() {
+        if (!g.getScenarioEntry().isReady()) {
+            return List.of(toLabel("  Computing trajectories...", Align.left, g.theme.color6()));
+        }
         return g.getScenario().parties().stream()
             .map(p -> String.format("  %s (%d)", p.name(), p.nukes().size()))
             .map(it -> toLabel(it, Align.left, g.theme.color6()))
@@ -82,7 +90,10 @@ public class ScenarioDetailsScreen extends TerminalScreen {
         super.processInput();
         if (kb.isEnterPressed()) {
             kb.reset();
-            g.sm().notify(name(), "done");
+            // The next screens need the template
+            if (g.getScenarioEntry().isReady()) {
+                g.sm().notify(name(), "done");
+            }
         }
     }
 }
@@ -15,12 +15,6 @@ public class ScenarioScreen extends TerminalScreen {
         super(g);
     }
 
-    @Override
-    public void show() {
-        super.show();
-        g.setScenarios(g.scenarioMaker.load());
-    }
-
     @Override
     protected @NotNull String templatePath() {
         return "screens/terminal/thermo/scenarios.txt";
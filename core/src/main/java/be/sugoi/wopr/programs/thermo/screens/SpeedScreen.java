@@ -2,6 +2,7 @@ package be.sugoi.wopr.programs.thermo.screens;
 
 import be.sugoi.wopr.Main;
 import be.sugoi.wopr.programs.thermo.entities.SimulationSpeed;
+import be.sugoi.wopr.sim.SimulationEngine;
 import be.sugoi.wopr.terminal.InvalidDirective;
 import be.sugoi.wopr.terminal.TerminalScreen;
 import com.badlogic.gdx.Gdx;
@@ -11,6 +12,8 @@ import org.jetbrains.annotations.NotNull;
 import java.util.List;
 
 public class SpeedScreen extends TerminalScreen {
+    private static final int SKIP_TO_OUTCOME = 5;
+
     public SpeedScreen(Main g) {
         super(g);
     }
@@ -38,6 +41,10 @@ public class SpeedScreen extends TerminalScreen {
         }
         try {
             int n = Integer.parseInt(kb.buffer());
+            if (n == SKIP_TO_OUTCOME) {
+                skipToOutcome();
+                return;
+            }
             g.simulationSpeed = switch (n) {
                 case 1 -> SimulationSpeed.REAL_TIME;
                 case 2 -> SimulationSpeed.FAST;
@@ -47,10 +54,10 @@ public class SpeedScreen extends TerminalScreen {
             };
             Gdx.input.setInputProcessor(null);
 
-            // Somehow this seems to be the right time to reload scenarios.
+            // Somehow this seems to be the right time to start a new run.
             // Doing it in WarScreen::show() would prevent going back from Outcome.
             // Doing it in this screen .show() breaks the transition from WarScreen to here.
-            g.setScenarios(g.scenarioMaker.load());
+            g.startRun();
 
             g.sm().notify(name(), "done");
         } catch (IllegalArgumentException e) {
@@ -59,4 +66,11 @@ public class SpeedScreen extends TerminalScreen {
             kb.reset();
         }
     }
+
+    /// Resolve the scenario without animation and go straight to the outcome.
+    private void skipToOutcome() {
+        Gdx.input.setInputProcessor(null);
+        new SimulationEngine(g.startRun()).resolve();
+        g.sm().notify(name(), "skip");
+    }
 }
@@ -1,35 +1,53 @@
 package be.sugoi.wopr.programs.thermo.screens;
 
 import be.sugoi.wopr.GdxFontHelper;
-import be.sugoi.wopr.GdxHelper;
 import be.sugoi.wopr.Main;
 import be.sugoi.wopr.Projection;
 import be.sugoi.wopr.dm.ScreenResolution;
 import be.sugoi.wopr.input.KeyboardSingle;
 import be.sugoi.wopr.programs.thermo.entities.*;
-import be.sugoi.wopr.programs.thermo.entities.scenario.Scenario;
+import be.sugoi.wopr.sim.SimulationEngine;
 import be.sugoi.wopr.terminal.BaseScreen;
 import be.sugoi.wopr.theme.Theme;
 import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.Input;
+import com.badlogic.gdx.InputAdapter;
+import com.badlogic.gdx.InputMultiplexer;
 import com.badlogic.gdx.audio.Sound;
 import com.badlogic.gdx.graphics.Color;
 import com.badlogic.gdx.graphics.FPSLogger;
 import com.badlogic.gdx.graphics.glutils.ShapeRenderer;
+import com.badlogic.gdx.math.Matrix4;
+import com.badlogic.gdx.math.Rectangle;
 import com.badlogic.gdx.math.Vector2;
 import com.badlogic.gdx.utils.ScreenUtils;
 import org.jetbrains.annotations.NotNull;
 
 import java.text.NumberFormat;
 import java.util.*;
-import java.util.function.Function;
-import java.util.function.Predicate;
 import java.util.stream.IntStream;
 
-import static java.util.stream.Collectors.toList;
 import static java.util.stream.Collectors.toMap;
 
 /// Thermonuclear war screen.
+///
+/// A view over a [SimulationEngine] stepping the current scenario.
+///
+/// The simulation advances in fixed ticks, whatever the frame rate and speed factor.
+/// A frame steps at most [#MAX_STEPS_PER_FRAME] ticks: a slow frame makes the
+/// simulation fall behind rather than spiral. Nukes are drawn at a position
+/// interpolated between the last two ticks.
+///
+/// The run is animated: it keeps the detonations still animating, drawn one
+/// by one. Finished ones are retired into a [ScarLayer], drawn as a single texture.
+///
+/// Country outlines are uploaded once to the GPU at startup, in normalized Mercator space,
+/// see [WorldOutlines], and drawn through a matrix applying the view offset
+/// and zoom: changing the view re-projects nothing. Markers (cities, sites, nukes) keep a constant size
+/// on screen, so their positions are projected as they are drawn.
+///
+/// The view is a [MapCamera]: it moves between [MapView] presets with eased
+/// transitions, zooms with the mouse wheel and pans by dragging.
 public class WarScreen extends BaseScreen {
 
     private enum Phase {
@@ -41,62 +59,104 @@ public class WarScreen extends BaseScreen {
     private static final float LAUNCH_SITE_SIDE_SIZE = 0.015f;
     private static final float LAUNCH_SITE_HEIGHT_SIZE = (float) (Math.sqrt(3) / 2 * LAUNCH_SITE_SIDE_SIZE);
     private static final float TRAJECTORY_DOT_SIZE = 0.001f;
+    // Legs behind the nuke head marked with a dot
+    private static final int TRAIL_LEGS = 4;
     private static final float DETONATION_MIN_LIGHT_INTENSITY = 0.25f;
     private static final float DETONATION_DIAMETER = 0.0075f;
     private static final int DETONATION_CIRCLE_SEGMENTS = 12;
+    // Screen space around the viewport where cities are still drawn (labels overflow)
+    private static final float CULLING_MARGIN = 0.05f;
+    // Frame time beyond which the simulation does not try to keep up (hitch, debugger)
+    private static final float MAX_FRAME_DELTA = 0.25f;
+    // Enough for the fastest speed down to 20 FPS
+    private static final int MAX_STEPS_PER_FRAME = 200;
+    private static final Vector2 WORLD_CENTER = new Vector2(Main.WORLD_WIDTH / 2, Main.WORLD_HEIGHT / 2);
 
     private final Main g;
     private final KeyboardSingle kb;
     private final Sound launchSound;
     private final @NotNull FPSLogger fps = new FPSLogger();
-    private float clock = 0f;
+    private SimulationEngine engine;
     private boolean paused = false;
     private @NotNull Phase phase = Phase.WAITING_TO_START;
-    private @NotNull MapView mapView = MapView.EUROPE;
+    private final @NotNull MapCamera view = new MapCamera();
     private Map<Party, Color> nukeColors;
+    private final ScarLayer scars;
     private boolean showCityLabels = true;
     private boolean showTrajectories = true;
 
     // Parameters for projection
 
-    // Map offset (range 0.0-1.0)
+    // Map offset (range 0.0-1.0), from the view
     private Vector2 offset;
-    // Map zoom. Nominal value is 1.0f * world height to display the whole map
+    // Map zoom, from the view. Nominal value is 1.0f * world height to display the whole map
     private float zoom;
+    // Visible area in Mercator space
+    private final Rectangle visibleArea = new Rectangle();
 
     private final NumberFormat numberFormat = NumberFormat.getNumberInstance();
 
-    // Precomputed screen projections (expensive)
-    // Logical models can be converted to screen coordinates and cached.
-    // Recompute on zoom or offset resize.
+    // Mercator to screen projection of the current view
+    private final Matrix4 mapMatrix = new Matrix4();
 
-    private List<float[]> polylines;
-    private final @NotNull Map<Nuke, List<Vector2>> screenTrajectories = new HashMap<>();
+    // Scratch vectors for nuke and city positions
+    private final Vector2 nukePosition = new Vector2();
+    private final Vector2 cityPosition = new Vector2();
+    // Mouse position, in world coordinates, when last dragged
+    private final Vector2 dragPosition = new Vector2();
+    private final Vector2 mousePosition = new Vector2();
 
     public WarScreen(Main game) {
         this.g = game;
         kb = new KeyboardSingle();
         launchSound = Gdx.audio.newSound(Gdx.files.internal("sounds/launch/strider.mp3"));
+        scars = new ScarLayer(g, DETONATION_MIN_LIGHT_INTENSITY, DETONATION_CIRCLE_SEGMENTS);
     }
 
     @Override
     public void show() {
-        setView(g.getScenario().initialView());
+        engine = new SimulationEngine(g.getRun());
+        engine.scenario().setAnimated(true);
+        scars.clear();
+        nukeColors = buildNukesColorMap();
+        view.jumpTo(g.getRun().initialView());
+        updateView(0);
         showCityLabels = g.settings.isShowCityLabels();
-        Gdx.input.setInputProcessor(kb);
-    }
+        Gdx.input.setInputProcessor(new InputMultiplexer(kb, new MouseNavigation()));
+    }
+
+    /// Advance the view transition, if any, and derive the projection parameters.
+    ///
+    /// Runs even when paused: the map can be looked at while the war is on hold.
+    private void updateView(float delta) {
+        view.update(delta);
+        offset = view.offset();
+        zoom = Main.WORLD_HEIGHT * view.zoomFactor();
+        Projection.visibleMercatorArea(offset, zoom, CULLING_MARGIN, visibleArea);
+    }
+
+    /// Mouse wheel zoom and drag to pan.
+    private class MouseNavigation extends InputAdapter {
+        @Override
+        public boolean scrolled(float amountX, float amountY) {
+            var anchor = g.fitViewport.unproject(mousePosition.set(Gdx.input.getX(), Gdx.input.getY()));
+            view.zoomAt(amountY, anchor, WORLD_CENTER, Main.WORLD_HEIGHT);
+            return true;
+        }
 
-    private void setView(MapView mapView) {
-        this.mapView = mapView;
-        offset = mapView.offset;
-        zoom = Main.WORLD_HEIGHT * mapView.zoomFactor;
-        precompute();
-    }
+        @Override
+        public boolean touchDown(int screenX, int screenY, int pointer, int button) {
+            g.fitViewport.unproject(dragPosition.set(screenX, screenY));
+            return true;
+        }
 
-    private void precompute() {
-        polylines = buildCountriesPolylines();
-        screenTrajectories.putAll(buildScreenTrajectories(g.getScenario().allNukes()));
-        nukeColors = buildNukesColorMap();
+        @Override
+        public boolean touchDragged(int screenX, int screenY, int pointer) {
+            var position = g.fitViewport.unproject(mousePosition.set(screenX, screenY));
+            view.panBy(position.x - dragPosition.x, position.y - dragPosition.y, Main.WORLD_HEIGHT);
+            dragPosition.set(position);
+            return true;
+        }
     }
 
     /**
@@ -121,45 +181,12 @@ public class WarScreen extends BaseScreen {
             ));
     }
 
-    private List<float[]> buildCountriesPolylines() {
-        return g.countries.getCountries().stream()
-            .map(Country::polygons)
-            .flatMap(List::stream)
-            .flatMap(polygon -> splitPolygon(polygon).stream())
-            .map(cappedPolygon -> Projection.polygonToScreenProjection(cappedPolygon, offset, zoom))
-            .map(projectedPolygon -> GdxHelper.pointsToScreenFloatArray(projectedPolygon.getPoints()))
-            .toList();
-    }
-
-    private List<Polygon> splitPolygon(Polygon polygon) {
-        // shape.polyline accepts at most 2000 floats.
-        // Some polygons have more values than that -> split
-        final int limit = 2000;
-        List<Polygon> polygonList = new ArrayList<>();
-        if (polygon.count() <= limit) {
-            polygonList.add(polygon);
-        } else {
-            for (int idx = 0; idx < polygon.count(); idx += limit) {
-                polygonList.add(polygon.subShape(idx, Math.min(idx + limit, polygon.count())));
-            }
-        }
-        return polygonList;
-    }
-
-    private Map<Nuke, List<Vector2>> buildScreenTrajectories(List<Nuke> nukes) {
-        return nukes.stream().collect(toMap(
-            Function.identity(),
-            nuke -> nuke.trajectory().stream()
-                .map(p -> Projection.coordinatesToScreenProjection(p, offset, zoom))
-                .collect(toList())
-        ));
-    }
-
     @Override
     public void render(float delta) {
         fps.log();
         input();
         logic(delta);
+        updateView(delta);
         draw();
     }
 
@@ -232,7 +259,7 @@ public class WarScreen extends BaseScreen {
             .filter(k -> kb.keyCode() == k)
             .findFirst()
             .ifPresentOrElse(
-                integer -> setView(viewForKey.get(integer)),
+                integer -> view.transitionTo(viewForKey.get(integer)),
                 () -> {
                     if (phase == Phase.WAITING_TO_START) {
                         launch();
@@ -260,37 +287,15 @@ public class WarScreen extends BaseScreen {
             return;
         }
 
-        // Update wall clock with speed factor
-        final float speedDelta = delta * g.simulationSpeed.speedFactor();
-        clock += speedDelta;
-
-        // Detect terminal state
-        var scenario = g.getScenario();
-        if (scenario.allNukes().stream().allMatch(Nuke::hasReachedDestination)) {
+        // Advance the simulation with speed factor, in fixed ticks
+        var frameDelta = Math.min(delta, MAX_FRAME_DELTA);
+        engine.advance(frameDelta * g.simulationSpeed.speedFactor(), MAX_STEPS_PER_FRAME);
+        if (engine.isTerminated()) {
             phase = Phase.TERMINATED;
         }
 
-        // Cruise nukes
-        scenario.parties().stream()
-            .filter(p -> clock > Scenario.RETALIATION_DELAY || p == scenario.firstStrike())
-            .flatMap(p -> p.nukes().stream().filter(Predicate.not(Nuke::isDetonated)))
-            .forEach(nuke -> {
-                nuke.launch();
-                nuke.update(speedDelta);
-            });
-
-        // Detect terminal nukes
-        var terminalNukes = scenario.allNukes().stream()
-            .filter(Nuke::hasReachedDestination)
-            .filter(Predicate.not(Nuke::isDetonated))
-            .toList();
-        // Remove them from screen vectors
-        terminalNukes.forEach(screenTrajectories::remove);
-        // Detonate
-        terminalNukes.forEach(scenario::detonate);
-
-        // Update detonations
-        scenario.allDetonations().forEach(detonation -> detonation.update(delta));
+        // Finished detonations are retired into the scar layer
+        engine.scenario().animateDetonations(delta, scars::add);
     }
 
     private void draw() {
@@ -363,32 +368,35 @@ public class WarScreen extends BaseScreen {
         g.batch.begin();
         var fontXL = g.fm.getFont(Main.FONT_XL);
         fontXL.setColor(g.theme.danger());
-        String formattedFatalities = numberFormat.format(g.getScenario().fatalities());
+        String formattedFatalities = numberFormat.format(g.getRun().fatalities());
         fontXL.draw(g.batch, formattedFatalities, 0.0f, 0.99f);
         var fontM = g.fm.getFont(Main.FONT_M);
         fontM.setColor(g.theme.danger());
-        fontM.draw(g.batch, "Detonations : " + g.getScenario().allDetonations().size(), 0.0f, 0.95f);
-        fontM.draw(g.batch, "Nukes       : " + g.getScenario().allAirborneNukes().size(), 0.0f, 0.93f);
+        fontM.draw(g.batch, "Detonations : " + g.getRun().detonations(), 0.0f, 0.95f);
+        fontM.draw(g.batch, "Nukes       : " + g.getRun().allAirborneNukes().size(), 0.0f, 0.93f);
         g.batch.end();
     }
 
     private void drawWorld() {
-        g.shape.begin(ShapeRenderer.ShapeType.Line);
-        g.shape.setColor(g.theme.color1());
-        polylines.forEach(polyline -> g.shape.polyline(polyline));
-        g.shape.end();
+        Projection.mercatorToScreenMatrix(g.camera.combined, offset, zoom, mapMatrix);
+        // A screen pixel, in Mercator units
+        var pixelSize = Main.WORLD_HEIGHT / (zoom * Math.max(1, g.fitViewport.getScreenHeight()));
+        g.outlines.draw(mapMatrix, g.theme.color1(), pixelSize, visibleArea);
     }
 
     private void drawDetonations() {
+        var scarRadius = DETONATION_DIAMETER * view.detonationFactor();
+        scars.draw(offset, zoom, scarRadius);
         g.shape.begin(ShapeRenderer.ShapeType.Filled);
-        g.getScenario().allDetonations().forEach(detonation -> {
-            var screenPos = Projection.coordinatesToScreenProjection(detonation.city().coord(), offset, zoom);
+        engine.scenario().activeDetonations().forEach(detonation -> {
+            var mercator = detonation.city().mercator(cityPosition);
+            var screenPos = Projection.mercatorToScreenProjection(mercator, offset, zoom, cityPosition);
             float i = Math.max(DETONATION_MIN_LIGHT_INTENSITY, detonation.lightIntensity());
-            g.shape.setColor(new Color(i, i, i, 1.0f));
+            g.shape.setColor(i, i, i, 1.0f);
             g.shape.circle(
                 screenPos.x,
                 screenPos.y,
-                detonation.diameter() * DETONATION_DIAMETER * mapView.detonationFactor,
+                detonation.diameter() * DETONATION_DIAMETER * view.detonationFactor(),
                 DETONATION_CIRCLE_SEGMENTS
             );
         });
@@ -400,11 +408,14 @@ public class WarScreen extends BaseScreen {
         var font = g.fm.getFont(Main.FONT_XS);
         font.setColor(g.theme.color1(Theme.Modifier.MUTE));
         for (var country : g.countries.getCountries()) {
-            if (country.population() < mapView.countryPopulationThresholdLarge) {
+            if (country.population() < view.countryPopulationThresholdLarge()) {
+                continue;
+            }
+            var label = country.labelMercator(cityPosition);
+            if (!visibleArea.contains(label.x, label.y)) {
                 continue;
             }
-            var position = country.labelPosition();
-            var projected = Projection.coordinatesToScreenProjection(position, offset, zoom);
+            var projected = Projection.mercatorToScreenProjection(label, offset, zoom, cityPosition);
             font.draw(g.batch, country.countryCode(), projected.x, projected.y);
         }
         g.batch.end();
@@ -417,34 +428,32 @@ public class WarScreen extends BaseScreen {
         g.batch.begin();
         var font = g.fm.getFont(Main.FONT_XS);
         font.setColor(g.theme.accentColor());
-        for (var city : g.cities.getCities()) {
-            if (city.population() < mapView.cityPopulationThresholdLarge) {
-                continue;
-            }
-            var coord = city.coord();
-            var projected = Projection.coordinatesToScreenProjection(coord, offset, zoom);
-            font.draw(g.batch, city.name(), projected.x, projected.y);
-        }
+        var table = g.cities.table();
+        g.cities.grid().forEach(visibleArea, view.cityPopulationThresholdLarge(), id -> {
+            var projected = Projection.mercatorToScreenProjection(
+                table.mercatorX(id), table.mercatorY(id), offset, zoom, cityPosition);
+            font.draw(g.batch, table.name(id), projected.x, projected.y);
+        });
         g.batch.end();
     }
 
     private void drawCities() {
         g.shape.begin(ShapeRenderer.ShapeType.Filled);
         g.shape.setColor(g.theme.color2());
-        var cities = g.cities.getCities().stream()
-            .filter(city -> city.population() >= mapView.cityPopulationThresholdMinimum)
-            .toList();
-        for (var city : cities) {
-            var coord = city.coord();
-            var projected = Projection.coordinatesToScreenProjection(coord, offset, zoom);
+        var table = g.cities.table();
+        var large = view.cityPopulationThresholdLarge();
+        var size = view.citySquareSize();
+        g.cities.grid().forEach(visibleArea, view.cityPopulationThresholdMinimum(), id -> {
+            var projected = Projection.mercatorToScreenProjection(
+                table.mercatorX(id), table.mercatorY(id), offset, zoom, cityPosition);
             float factor;
-            if (city.population() > mapView.cityPopulationThresholdLarge) {
+            if (table.population(id) > large) {
                 factor = CITY_LARGE_DOT_SCALE;
             } else {
                 factor = 1.0f;
             }
-            g.shape.rect(projected.x, projected.y, mapView.citySquareSize * factor, mapView.citySquareSize * factor);
-        }
+            g.shape.rect(projected.x, projected.y, size * factor, size * factor);
+        });
         g.shape.end();
     }
 
@@ -453,9 +462,9 @@ public class WarScreen extends BaseScreen {
         g.getScenario().parties().forEach(p -> {
                 g.shape.setColor(nukeColors.get(p));
                 p.launchSites().stream()
-                    .map(LaunchSite::coord)
-                    .map(position ->
-                        Projection.coordinatesToScreenProjection(position, offset, zoom))
+                    .map(site -> site.mercator(cityPosition))
+                    .map(mercator ->
+                        Projection.mercatorToScreenProjection(mercator, offset, zoom, cityPosition))
                     .forEach(v -> g.shape.triangle(
                         v.x, v.y + LAUNCH_SITE_HEIGHT_SIZE / 3,
                         v.x - LAUNCH_SITE_SIDE_SIZE / 2, v.y - LAUNCH_SITE_HEIGHT_SIZE / 3,
@@ -469,19 +478,23 @@ public class WarScreen extends BaseScreen {
         if (phase != Phase.NUKING_THE_WORLD) {
             return;
         }
+        var time = engine.interpolatedClock();
         g.shape.begin(ShapeRenderer.ShapeType.Line);
-        g.getScenario().airborneNukesPerParty().forEach((party, nukes) -> {
+        g.getRun().airborneNukesPerParty().forEach((party, nukes) -> {
             g.shape.setColor(nukeColors.get(party));
             nukes.forEach(nuke -> {
-                drawHead(nuke);
-                drawTrajectory(nuke);
+                // Head and trail follow the same interpolated leg
+                var leg = engine.scenario().state().legAt(nuke.id(), time);
+                drawHead(nuke, leg);
+                drawTrajectory(nuke, leg);
             });
         });
         g.shape.end();
     }
 
-    private void drawHead(Nuke nuke) {
-        var position = Projection.coordinatesToScreenProjection(nuke.position(), offset, zoom);
+    private void drawHead(Nuke nuke, float leg) {
+        var coord = nuke.positionAt(leg, nukePosition);
+        var position = Projection.coordinatesToScreenProjection(coord, offset, zoom, nukePosition);
         var half = NUKE_SIZE / 2;
         g.shape.rect(
             position.x - half, position.y - half,
@@ -490,16 +503,16 @@ public class WarScreen extends BaseScreen {
         );
     }
 
-    private void drawTrajectory(Nuke nuke) {
+    /// Dots on the last legs flown, behind the head.
+    private void drawTrajectory(Nuke nuke, float leg) {
         if (!showTrajectories) {
             return;
         }
-        var nukeScreenTrajectory = screenTrajectories.get(nuke);
-        IntStream.range(Math.max(0, nuke.getLeg() - 4), nuke.getLeg())
-            .mapToObj(nukeScreenTrajectory::get)
-            .forEach(screenPoint ->
-                g.shape.rect(screenPoint.x, screenPoint.y, TRAJECTORY_DOT_SIZE, TRAJECTORY_DOT_SIZE)
-            );
+        for (int trailLeg = Math.max(0, (int) Math.ceil(leg) - TRAIL_LEGS); trailLeg < leg; trailLeg++) {
+            var position = nuke.positionAt(trailLeg, nukePosition);
+            var screenPoint = Projection.coordinatesToScreenProjection(position, offset, zoom, nukePosition);
+            g.shape.rect(screenPoint.x, screenPoint.y, TRAJECTORY_DOT_SIZE, TRAJECTORY_DOT_SIZE);
+        }
     }
 
     @Override
@@ -529,6 +542,7 @@ public class WarScreen extends BaseScreen {
     @Override
     public void dispose() {
         launchSound.dispose();
+        scars.dispose();
         Gdx.input.setInputProcessor(null);
     }
 }
@@ -0,0 +1,175 @@
+package be.sugoi.wopr.programs.thermo.screens;
+
+import be.sugoi.wopr.programs.thermo.entities.Country;
+import be.sugoi.wopr.programs.thermo.entities.Polygon;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.Mesh;
+import com.badlogic.gdx.graphics.VertexAttribute;
+import com.badlogic.gdx.graphics.VertexAttributes;
+import com.badlogic.gdx.graphics.glutils.ShaderProgram;
+import com.badlogic.gdx.math.Matrix4;
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.utils.Disposable;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/// Country outlines, in normalized Mercator space, at every level of detail.
+///
+/// Outlines are uploaded once into a static mesh, as line segments
+/// (`GL_LINES`), and drawn by a dedicated shader with the Mercator
+/// to screen matrix of the view. Nothing goes through the CPU per frame.
+///
+/// Segments are stored level after level, see [Polygon#lodLevel(float)],
+/// and within a level, country after country. Countries are ordered along
+/// a Z-order curve, so that countries close to each other are close in the mesh.
+///
+/// Drawing picks the level of detail matching the size of a pixel, and skips
+/// the countries whose bounding box is outside the visible area. Consecutive
+/// visible countries are drawn together: one draw call when the whole world
+/// is visible, a few when zoomed in.
+///
+/// Built once, when the countries are loaded, and kept for the whole session
+/// by [be.sugoi.wopr.Main], which disposes it on exit.
+public class WorldOutlines implements Disposable {
+    private static final String VERTEX_SHADER = "shaders/outline.vert";
+    private static final String FRAGMENT_SHADER = "shaders/outline.frag";
+    // Z-order curve resolution, per axis
+    private static final int Z_ORDER_BITS = 10;
+
+    private final @NotNull List<Country> countries;
+    // First vertex of each country, per level. The last entry ends the level.
+    private final int[][] firsts;
+    private final @NotNull Mesh mesh;
+    private final @NotNull ShaderProgram shader;
+    // Per frame buffers: visibility of each country, runs to draw
+    private final boolean[] visibleCountries;
+    private final int[] runs;
+
+    public WorldOutlines(@NotNull List<Country> countries) {
+        this.countries = countries.stream()
+            .sorted(Comparator.comparingInt(WorldOutlines::zOrder))
+            .toList();
+        var levels = Polygon.LOD_TOLERANCES.length;
+        // Simplified outlines of each polygon, in country order, computed in parallel.
+        // Only kept until uploaded.
+        var polygons = this.countries.stream().flatMap(country -> country.polygons().stream()).toList();
+        var outlines = polygons.parallelStream()
+            .map(polygon -> IntStream.range(0, levels).mapToObj(polygon::outline).toArray(float[][]::new))
+            .toList();
+        firsts = new int[levels][this.countries.size() + 1];
+        visibleCountries = new boolean[this.countries.size()];
+        runs = new int[this.countries.size() + 1];
+        var vertices = 0;
+        for (int level = 0; level < levels; level++) {
+            var p = 0;
+            for (int i = 0; i < this.countries.size(); i++) {
+                firsts[level][i] = vertices;
+                for (int end = p + this.countries.get(i).polygons().size(); p < end; p++) {
+                    vertices += segments(outlines.get(p)[level]) * 2;
+                }
+            }
+            firsts[level][this.countries.size()] = vertices;
+        }
+        var positions = new float[vertices * 2];
+        var index = 0;
+        for (int level = 0; level < levels; level++) {
+            for (var polygonOutlines : outlines) {
+                var outline = polygonOutlines[level];
+                for (int i = 0; i < segments(outline); i++) {
+                    System.arraycopy(outline, i * 2, positions, index, 4);
+                    index += 4;
+                }
+            }
+        }
+        mesh = new Mesh(true, vertices, 0,
+            new VertexAttribute(VertexAttributes.Usage.Position, 2, ShaderProgram.POSITION_ATTRIBUTE));
+        mesh.setVertices(positions);
+        shader = new ShaderProgram(Gdx.files.internal(VERTEX_SHADER), Gdx.files.internal(FRAGMENT_SHADER));
+        if (!shader.isCompiled()) {
+            mesh.dispose();
+            throw new IllegalStateException("Outline shader does not compile: " + shader.getLog());
+        }
+    }
+
+    private static int segments(float[] outline) {
+        return Math.max(0, outline.length / 2 - 1);
+    }
+
+    /// Draw the visible outlines, at the level of detail of the zoom.
+    ///
+    /// Must be called outside of any batch or shape rendering.
+    ///
+    /// @param matrix    Mercator to screen projection
+    /// @param color     Outline color
+    /// @param pixelSize Size of a screen pixel, in normalized Mercator units
+    /// @param visible   Visible area, in normalized Mercator coordinates
+    void draw(@NotNull Matrix4 matrix, @NotNull Color color, float pixelSize, @NotNull Rectangle visible) {
+        for (int i = 0; i < countries.size(); i++) {
+            visibleCountries[i] = countries.get(i).overlaps(visible);
+        }
+        var count = runs(firsts[Polygon.lodLevel(pixelSize)], visibleCountries, runs);
+        shader.bind();
+        shader.setUniformMatrix("u_projTrans", matrix);
+        shader.setUniformf("u_color", color);
+        for (int run = 0; run < count; run++) {
+            var from = runs[run * 2];
+            mesh.render(shader, GL20.GL_LINES, from, runs[run * 2 + 1] - from);
+        }
+    }
+
+    /// Group consecutive visible countries into runs of vertices, one draw call each.
+    ///
+    /// @param first   First vertex of each country, the last entry ending the last country
+    /// @param visible Whether each country is visible
+    /// @param runs    Receives the runs, as pairs of first vertex (inclusive) and last vertex (exclusive).
+    ///                Must hold at least `visible.length + 1` entries.
+    /// @return Number of runs. Runs without vertices are left out, runs only separated
+    ///         by countries without vertices are merged.
+    static int runs(int[] first, boolean[] visible, int[] runs) {
+        var count = 0;
+        // Start of the pending run, if any
+        var runStart = -1;
+        for (int i = 0; i <= visible.length; i++) {
+            var isVisible = i < visible.length && visible[i];
+            if (isVisible && runStart < 0) {
+                runStart = first[i];
+            } else if (!isVisible && runStart >= 0) {
+                if (count > 0 && runs[count * 2 - 1] == runStart) {
+                    // Only countries without vertices in between: extend the previous run
+                    runs[count * 2 - 1] = first[i];
+                } else if (first[i] > runStart) {
+                    runs[count * 2] = runStart;
+                    runs[count * 2 + 1] = first[i];
+                    count++;
+                }
+                runStart = -1;
+            }
+        }
+        return count;
+    }
+
+    // Position of a country center along a Z-order curve
+    private static int zOrder(Country country) {
+        var bounds = country.bounds(new Rectangle());
+        var scale = (1 << Z_ORDER_BITS) - 1;
+        var x = Math.clamp((int) ((bounds.x + bounds.width / 2) * scale), 0, scale);
+        var y = Math.clamp((int) ((bounds.y + bounds.height / 2) * scale), 0, scale);
+        var z = 0;
+        for (int bit = 0; bit < Z_ORDER_BITS; bit++) {
+            z |= ((x >> bit) & 1) << (2 * bit);
+            z |= ((y >> bit) & 1) << (2 * bit + 1);
+        }
+        return z;
+    }
+
+    @Override
+    public void dispose() {
+        mesh.dispose();
+        shader.dispose();
+    }
+}
@@ -0,0 +1,155 @@
+package be.sugoi.wopr.sim;
+
+import be.sugoi.wopr.programs.thermo.entities.scenario.ScenarioTemplate;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+
+/// Monte Carlo ensemble of a scenario.
+///
+/// Runs many independent replicas of a scenario, spread over several cores,
+/// and gathers the distribution of fatalities per party.
+/// Each replica is a run of the same immutable scenario template and owns
+/// all its mutable state (flight states, damages), so replicas never
+/// share anything mutable.
+///
+/// Statistics are streamed to a listener as replicas complete.
+///
+/// Replica seeds are derived from the ensemble seed by replica index,
+/// so the final statistics only depend on the seed, not on the number
+/// of threads nor on the order in which replicas complete.
+public class Ensemble {
+    private final @NotNull ScenarioTemplate template;
+    private final int parallelism;
+
+    /// Ensemble using all available cores.
+    /// @param template Scenario to run
+    public Ensemble(@NotNull ScenarioTemplate template) {
+        this(template, Runtime.getRuntime().availableProcessors());
+    }
+
+    public Ensemble(@NotNull ScenarioTemplate template, int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Invalid parallelism: " + parallelism);
+        }
+        this.template = template;
+        this.parallelism = parallelism;
+    }
+
+    /// Run the ensemble.
+    ///
+    /// @param seed        Ensemble seed
+    /// @param replicas    Number of replicas to run
+    /// @param reportEvery Notify the listener every time this many replicas have completed
+    /// @param listener    Receives statistics as replicas complete, one call at a time, the last one being final
+    /// @return Final statistics
+    public @NotNull EnsembleSnapshot run(
+        long seed,
+        int replicas,
+        int reportEvery,
+        @NotNull Consumer<EnsembleSnapshot> listener
+    ) {
+        if (replicas < 1) {
+            throw new IllegalArgumentException("Invalid number of replicas: " + replicas);
+        }
+        if (reportEvery < 1) {
+            throw new IllegalArgumentException("Invalid report interval: " + reportEvery);
+        }
+        var samples = new Samples(replicas);
+        forEachReplica(seed, replicas, (replica, outcome) -> samples.add(outcome, reportEvery, listener));
+        return samples.snapshot();
+    }
+
+    /// Outcomes of the replicas of an ensemble, by replica index.
+    /// @param seed     Ensemble seed
+    /// @param replicas Number of replicas to run
+    /// @return Outcome of each replica
+    SimulationOutcome @NotNull [] outcomes(long seed, int replicas) {
+        var outcomes = new SimulationOutcome[replicas];
+        forEachReplica(seed, replicas, (replica, outcome) -> outcomes[replica] = outcome);
+        return outcomes;
+    }
+
+    /// Seed of each replica of an ensemble.
+    /// @param seed     Ensemble seed
+    /// @param replicas Number of replicas
+    /// @return Seeds, by replica index
+    static long[] replicaSeeds(long seed, int replicas) {
+        return new SplittableRandom(seed).longs(replicas).toArray();
+    }
+
+    // Resolve every replica on the pool, handing over outcomes as they complete
+    private void forEachReplica(long seed, int replicas, ReplicaConsumer consumer) {
+        var seeds = replicaSeeds(seed, replicas);
+        var pool = new ForkJoinPool(parallelism);
+        try {
+            pool.submit(() -> IntStream.range(0, replicas).parallel().forEach(replica -> {
+                var outcome = new SimulationEngine(template.newRun(seeds[replica])).resolve();
+                consumer.accept(replica, outcome);
+            })).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Ensemble interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Ensemble replica failed", e.getCause());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @FunctionalInterface
+    private interface ReplicaConsumer {
+        void accept(int replica, SimulationOutcome outcome);
+    }
+
+    public @NotNull EnsembleSnapshot run(long seed, int replicas) {
+        return run(seed, replicas, replicas, snapshot -> {});
+    }
+
+    /// Fatalities of each party, one sample per completed replica.
+    private static class Samples {
+        private final int replicas;
+        private String scenario;
+        private List<String> parties;
+        private int[] populations;
+        private int[][] fatalities;
+        private int completed = 0;
+
+        Samples(int replicas) {
+            this.replicas = replicas;
+        }
+
+        synchronized void add(SimulationOutcome outcome, int reportEvery, Consumer<EnsembleSnapshot> listener) {
+            var partyOutcomes = outcome.parties();
+            if (fatalities == null) {
+                scenario = outcome.scenario();
+                parties = partyOutcomes.stream().map(SimulationOutcome.PartyOutcome::name).toList();
+                populations = partyOutcomes.stream().mapToInt(SimulationOutcome.PartyOutcome::population).toArray();
+                fatalities = new int[partyOutcomes.size()][replicas];
+            }
+            for (int p = 0; p < partyOutcomes.size(); p++) {
+                fatalities[p][completed] = partyOutcomes.get(p).fatalities();
+            }
+            completed++;
+            if (completed % reportEvery == 0 || completed == replicas) {
+                listener.accept(snapshot());
+            }
+        }
+
+        synchronized EnsembleSnapshot snapshot() {
+            var distributions = new ArrayList<FatalityDistribution>();
+            for (int p = 0; p < parties.size(); p++) {
+                var sorted = Arrays.copyOf(fatalities[p], completed);
+                distributions.add(FatalityDistribution.of(parties.get(p), populations[p], sorted, completed));
+            }
+            return new EnsembleSnapshot(scenario, completed, replicas, List.copyOf(distributions));
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package be.sugoi.wopr.sim;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
+
+/// Statistics of an ensemble, taken while or after it runs.
+///
+/// @param scenario  Scenario name
+/// @param completed Number of replicas completed so far
+/// @param replicas  Total number of replicas
+/// @param parties   Fatality distributions, per party (same order as the scenario)
+public record EnsembleSnapshot(
+    @NotNull String scenario,
+    int completed,
+    int replicas,
+    @NotNull List<FatalityDistribution> parties
+) {
+    public boolean isComplete() {
+        return completed == replicas;
+    }
+}
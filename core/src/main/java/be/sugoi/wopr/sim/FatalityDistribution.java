@@ -0,0 +1,122 @@
+package be.sugoi.wopr.sim;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/// Distribution of the fatalities suffered by a party over an ensemble of runs.
+///
+/// Immutable: the histogram is copied in and out, and compared by content.
+///
+/// @param party      Party name
+/// @param population Party population
+/// @param count      Number of samples
+/// @param mean       Mean fatalities
+/// @param min        Lowest fatalities
+/// @param max        Highest fatalities
+/// @param p5         5th percentile
+/// @param p50        Median
+/// @param p95        95th percentile
+/// @param histogram  Sample counts over [#HISTOGRAM_BINS] equal bins spanning `[0, population]`
+public record FatalityDistribution(
+    @NotNull String party,
+    int population,
+    int count,
+    double mean,
+    int min,
+    int max,
+    int p5,
+    int p50,
+    int p95,
+    int @NotNull [] histogram
+) {
+    public static final int HISTOGRAM_BINS = 20;
+
+    public FatalityDistribution {
+        histogram = histogram.clone();
+    }
+
+    /// Build the distribution of a set of samples.
+    /// @param party      Party name
+    /// @param population Party population
+    /// @param samples    Fatalities, one per run (sorted in place)
+    /// @param count      Number of samples to consider
+    /// @return The distribution
+    static @NotNull FatalityDistribution of(@NotNull String party, int population, int @NotNull [] samples, int count) {
+        Arrays.sort(samples, 0, count);
+        var histogram = new int[HISTOGRAM_BINS];
+        long sum = 0;
+        for (int i = 0; i < count; i++) {
+            sum += samples[i];
+            histogram[bin(samples[i], population)]++;
+        }
+        return new FatalityDistribution(
+            party,
+            population,
+            count,
+            count == 0 ? 0 : (double) sum / count,
+            count == 0 ? 0 : samples[0],
+            count == 0 ? 0 : samples[count - 1],
+            percentile(samples, count, 5),
+            percentile(samples, count, 50),
+            percentile(samples, count, 95),
+            histogram);
+    }
+
+    /// Sample counts per bin.
+    /// @return A copy of the histogram
+    @Override
+    public int @NotNull [] histogram() {
+        return histogram.clone();
+    }
+
+    /// Nearest-rank percentile of sorted samples.
+    private static int percentile(int[] sorted, int count, int percent) {
+        if (count == 0) {
+            return 0;
+        }
+        var rank = (int) Math.ceil(percent / 100.0 * count);
+        return sorted[Math.max(rank, 1) - 1];
+    }
+
+    private static int bin(int fatalities, int population) {
+        if (population <= 0) {
+            return 0;
+        }
+        return Math.min((int) ((long) fatalities * HISTOGRAM_BINS / population), HISTOGRAM_BINS - 1);
+    }
+
+    /// Fraction of the population killed, on average.
+    public double meanRatio() {
+        return population == 0 ? 0 : mean / population;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (obj == this) return true;
+        if (obj == null || obj.getClass() != this.getClass()) return false;
+        var that = (FatalityDistribution) obj;
+        return Objects.equals(this.party, that.party) &&
+            this.population == that.population &&
+            this.count == that.count &&
+            Double.compare(this.mean, that.mean) == 0 &&
+            this.min == that.min &&
+            this.max == that.max &&
+            this.p5 == that.p5 &&
+            this.p50 == that.p50 &&
+            this.p95 == that.p95 &&
+            Arrays.equals(this.histogram, that.histogram);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Objects.hash(party, population, count, mean, min, max, p5, p50, p95) + Arrays.hashCode(histogram);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s: mean %.0f p5 %d p50 %d p95 %d over %d runs %s",
+            party, mean, p5, p50, p95, count, Arrays.toString(histogram));
+    }
+}
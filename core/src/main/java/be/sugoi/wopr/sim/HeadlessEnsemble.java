@@ -0,0 +1,44 @@
+package be.sugoi.wopr.sim;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/// Run a Monte Carlo ensemble of a scenario and print the fatality distributions.
+///
+/// Usage: `HeadlessEnsemble <assets dir> <scenario number> <replicas> [seed]`
+public class HeadlessEnsemble {
+    public static void main(String[] args) throws IOException {
+        if (args.length != 3 && args.length != 4) {
+            System.err.println("Usage: HeadlessEnsemble <assets dir> <scenario number> <replicas> [seed]");
+            System.exit(1);
+        }
+        var seed = args.length == 4 ? Long.parseLong(args[3]) : new SplittableRandom().nextLong();
+        var world = WorldData.load(Path.of(args[0]));
+        var template = world.scenario(Integer.parseInt(args[1]) - 1);
+        var replicas = Integer.parseInt(args[2]);
+
+        var start = System.nanoTime();
+        var ensemble = new Ensemble(template);
+        var result = ensemble.run(seed, replicas, Math.max(1, replicas / 10), snapshot ->
+            System.out.printf("%d/%d replicas%n", snapshot.completed(), snapshot.replicas()));
+        var elapsed = (System.nanoTime() - start) / 1_000_000;
+
+        System.out.println(result.scenario() + " (seed " + seed + ")");
+        result.parties().forEach(p -> {
+            System.out.printf("  %-20s mean: %,.0f (%.1f%%) p5: %,d p50: %,d p95: %,d%n",
+                p.party(), p.mean(), p.meanRatio() * 100, p.p5(), p.p50(), p.p95());
+            var histogram = p.histogram();
+            var max = Arrays.stream(histogram).max().orElse(1);
+            for (int bin = 0; bin < histogram.length; bin++) {
+                var count = histogram[bin];
+                if (count > 0) {
+                    System.out.printf("    %3d%% %s %d%n",
+                        bin * 100 / FatalityDistribution.HISTOGRAM_BINS, "#".repeat(count * 40 / max), count);
+                }
+            }
+        });
+        System.out.printf("%d replicas in %d ms%n", replicas, elapsed);
+    }
+}
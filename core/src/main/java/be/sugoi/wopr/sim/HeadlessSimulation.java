@@ -0,0 +1,32 @@
+package be.sugoi.wopr.sim;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.SplittableRandom;
+
+/// Run a scenario to completion without a display and print its outcome.
+///
+/// Usage: `HeadlessSimulation <assets dir> <scenario number> [seed]`
+public class HeadlessSimulation {
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2 && args.length != 3) {
+            System.err.println("Usage: HeadlessSimulation <assets dir> <scenario number> [seed]");
+            System.exit(1);
+        }
+        var seed = args.length == 3 ? Long.parseLong(args[2]) : new SplittableRandom().nextLong();
+        var world = WorldData.load(Path.of(args[0]));
+        var template = world.scenario(Integer.parseInt(args[1]) - 1);
+
+        var start = System.nanoTime();
+        var outcome = new SimulationEngine(template.newRun(seed)).run();
+        var elapsed = (System.nanoTime() - start) / 1_000_000;
+
+        System.out.println(outcome.scenario() + " (seed " + seed + ")");
+        template.allocationReports().forEach(r -> System.out.println("  allocation " + r));
+        outcome.parties().forEach(p -> System.out.printf(
+            "  %-20s fatalities: %,d (%d hits)%n", p.name(), p.fatalities(), p.hits()
+        ));
+        System.out.printf("Total: %,d in %.0f simulated seconds (%d ms)%n",
+            outcome.fatalities(), outcome.duration(), elapsed);
+    }
+}
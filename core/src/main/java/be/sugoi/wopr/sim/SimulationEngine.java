@@ -0,0 +1,139 @@
+package be.sugoi.wopr.sim;
+
+import be.sugoi.wopr.programs.thermo.entities.scenario.ScenarioRun;
+import org.jetbrains.annotations.NotNull;
+
+/// Headless simulation engine.
+///
+/// Steps a [ScenarioRun] at a fixed tick, independently of any rendering.
+/// The engine does not rely on libGDX application services (files, graphics, audio),
+/// so it can run without a display, e.g. on build servers or in benchmarks.
+///
+/// When driven by a renderer, time is accumulated and consumed in whole ticks,
+/// with a bounded number of ticks per frame. The remainder gives the
+/// interpolation factor between the last two simulation states.
+public class SimulationEngine {
+    /// Default simulation tick, in simulation seconds
+    public static final float DEFAULT_TICK = 0.1f;
+
+    private final @NotNull ScenarioRun scenario;
+    private final float tick;
+    private long ticks = 0;
+    private float accumulator = 0;
+
+    public SimulationEngine(@NotNull ScenarioRun scenario) {
+        this(scenario, DEFAULT_TICK);
+    }
+
+    public SimulationEngine(@NotNull ScenarioRun scenario, float tick) {
+        if (tick <= 0) {
+            throw new IllegalArgumentException("Invalid tick: " + tick);
+        }
+        this.scenario = scenario;
+        this.tick = tick;
+    }
+
+    /// Advance the simulation by one tick.
+    public void step() {
+        ticks++;
+        scenario.update(clock());
+    }
+
+    /// Advance the simulation by a duration.
+    ///
+    /// Time is accumulated and consumed in whole ticks,
+    /// the remainder is carried over to the next call.
+    ///
+    /// @param duration Simulation time to advance
+    public void advance(float duration) {
+        advance(duration, Integer.MAX_VALUE);
+    }
+
+    /// Advance the simulation by a duration, with a budget of ticks.
+    ///
+    /// If the budget does not cover the duration, the backlog beyond
+    /// the budget is dropped: the simulation falls behind instead of
+    /// trying to catch up on the next calls.
+    ///
+    /// @param duration Simulation time to advance
+    /// @param maxSteps Maximum number of ticks to step
+    /// @return Number of ticks stepped
+    public int advance(float duration, int maxSteps) {
+        accumulator += duration;
+        int steps = 0;
+        while (accumulator >= tick && steps < maxSteps && !isTerminated()) {
+            step();
+            accumulator -= tick;
+            steps++;
+        }
+        if (accumulator >= tick) {
+            accumulator %= tick;
+        }
+        return steps;
+    }
+
+    /// Interpolation factor between the previous and the current tick.
+    /// @return Fraction of a tick accumulated but not stepped yet, in `[0, 1)`
+    public float alpha() {
+        return isTerminated() ? 1f : accumulator / tick;
+    }
+
+    /// Simulation time to render, between the previous and the current tick.
+    ///
+    /// Lags at most one tick behind [#clock()], so that every state it falls
+    /// between has already been simulated.
+    public float interpolatedClock() {
+        return Math.max(0, clock() - (1 - alpha()) * tick);
+    }
+
+    /// Run the scenario to completion.
+    /// @return The outcome
+    public @NotNull SimulationOutcome run() {
+        while (!isTerminated()) {
+            step();
+        }
+        return outcome();
+    }
+
+    /// Resolve the scenario at once, skipping the ticks.
+    ///
+    /// The outcome is identical to [#run()], including its duration:
+    /// the clock is set to the tick an animated run would end on.
+    ///
+    /// @return The outcome
+    public @NotNull SimulationOutcome resolve() {
+        var start = ticks;
+        var end = scenario.resolve();
+        ticks = Math.max(start, (long) Math.ceil(end / tick));
+        // Match the float clock of stepped runs
+        while (clock() < end) {
+            ticks++;
+        }
+        while (ticks > start && (ticks - 1) * tick >= end) {
+            ticks--;
+        }
+        accumulator = 0;
+        return outcome();
+    }
+
+    public boolean isTerminated() {
+        return scenario.isTerminated();
+    }
+
+    /// Simulation time since the first strike
+    public float clock() {
+        return ticks * tick;
+    }
+
+    public float tick() {
+        return tick;
+    }
+
+    public @NotNull ScenarioRun scenario() {
+        return scenario;
+    }
+
+    public @NotNull SimulationOutcome outcome() {
+        return SimulationOutcome.of(scenario, clock());
+    }
+}
@@ -0,0 +1,32 @@
+package be.sugoi.wopr.sim;
+
+import be.sugoi.wopr.programs.thermo.entities.scenario.ScenarioRun;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
+
+/// Outcome of a simulation run.
+///
+/// @param scenario Scenario name
+/// @param duration Simulation time when the outcome was taken
+/// @param parties  Damages received, per party (same order as the scenario)
+public record SimulationOutcome(
+    @NotNull String scenario,
+    float duration,
+    @NotNull List<PartyOutcome> parties
+) {
+    /// Damages received by a party.
+    public record PartyOutcome(@NotNull String name, int population, int fatalities, int hits) {
+    }
+
+    public static @NotNull SimulationOutcome of(@NotNull ScenarioRun scenario, float duration) {
+        var parties = scenario.parties().stream()
+            .map(p -> new PartyOutcome(p.name(), p.population(), scenario.fatalities(p), scenario.hits(p)))
+            .toList();
+        return new SimulationOutcome(scenario.name(), duration, parties);
+    }
+
+    public long fatalities() {
+        return parties.stream().mapToLong(PartyOutcome::fatalities).sum();
+    }
+}
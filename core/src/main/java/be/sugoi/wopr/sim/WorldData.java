@@ -0,0 +1,52 @@
+package be.sugoi.wopr.sim;
+
+import be.sugoi.wopr.programs.thermo.entities.Cities;
+import be.sugoi.wopr.programs.thermo.entities.Countries;
+import be.sugoi.wopr.programs.thermo.entities.scenario.ScenarioMaker;
+import be.sugoi.wopr.programs.thermo.entities.scenario.ScenarioTemplate;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+/// World data (countries, cities, scenarios) loaded from the file system.
+///
+/// @param assets    Assets directory
+/// @param countries Countries
+/// @param cities    Cities
+public record WorldData(@NotNull Path assets, @NotNull Countries countries, @NotNull Cities cities) {
+
+    /// Load countries and cities from an assets directory.
+    /// @param assets Assets directory
+    /// @return World data
+    /// @throws IOException If a file cannot be read
+    public static @NotNull WorldData load(@NotNull Path assets) throws IOException {
+        var countries = new Countries();
+        countries.load(assets);
+        var cities = new Cities();
+        cities.load(assets);
+        return new WorldData(assets, countries, cities);
+    }
+
+    /// Build the scenarios.
+    /// @return Scenario templates, ready to be run
+    /// @throws IOException If the scenarios file cannot be read
+    public @NotNull List<ScenarioTemplate> scenarios() throws IOException {
+        return new ScenarioMaker(cities, countries).load(assets);
+    }
+
+    /// Build a single scenario.
+    ///
+    /// The template is immutable: runs started from it can be
+    /// simulated concurrently.
+    ///
+    /// @param index Scenario index
+    /// @return Scenario template
+    /// @throws IOException If the scenarios file cannot be read
+    public @NotNull ScenarioTemplate scenario(int index) throws IOException {
+        var text = Files.readString(assets.resolve(ScenarioMaker.FILENAME));
+        return new ScenarioMaker(cities, countries).loadScenario(text, index);
+    }
+}
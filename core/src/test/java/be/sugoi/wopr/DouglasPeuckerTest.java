@@ -0,0 +1,61 @@
+package be.sugoi.wopr;
+
+import org.junit.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class DouglasPeuckerTest {
+
+    @Test
+    public void testStraightLineKeepsEnds() {
+        float[] xs = {0f, 1f, 2f, 3f, 4f};
+        float[] ys = {0f, 1f, 2f, 3f, 4f};
+        assertArrayEquals(new float[] {0f, 0f, 4f, 4f}, DouglasPeucker.simplify(xs, ys, 5, 0.01f), 0f);
+    }
+
+    @Test
+    public void testZeroToleranceKeepsEverything() {
+        float[] xs = {0f, 1f, 2f};
+        float[] ys = {0f, 0f, 0f};
+        assertArrayEquals(new float[] {0f, 0f, 1f, 0f, 2f, 0f}, DouglasPeucker.simplify(xs, ys, 3, 0f), 0f);
+    }
+
+    @Test
+    public void testClosedRingStaysClosed() {
+        // A square, first point repeated last
+        float[] xs = {0f, 1f, 1f, 0f, 0f};
+        float[] ys = {0f, 0f, 1f, 1f, 0f};
+        var ring = DouglasPeucker.simplify(xs, ys, 5, 0.1f);
+        assertEquals(10, ring.length);
+        assertEquals(ring[0], ring[ring.length - 2], 0f);
+        assertEquals(ring[1], ring[ring.length - 1], 0f);
+    }
+
+    @Test
+    public void testWithinTolerance() {
+        var count = 5000;
+        var xs = new float[count];
+        var ys = new float[count];
+        var random = new SplittableRandom(7);
+        for (int i = 0; i < count; i++) {
+            xs[i] = i / (float) count;
+            ys[i] = (float) (Math.sin(i / 100.0) * 0.1 + random.nextDouble(-0.001, 0.001));
+        }
+        var tolerance = 0.005f;
+        var line = DouglasPeucker.simplify(xs, ys, count, tolerance);
+        assertTrue(line.length / 2 < count / 10);
+        // Every original point is within tolerance of the simplified line
+        for (int i = 0; i < count; i++) {
+            var nearest = Float.MAX_VALUE;
+            for (int j = 0; j + 3 < line.length; j += 2) {
+                nearest = Math.min(nearest, DouglasPeucker.squaredDistance(
+                    xs[i], ys[i], line[j], line[j + 1], line[j + 2], line[j + 3]));
+            }
+            assertTrue(Math.sqrt(nearest) <= tolerance * 1.0001);
+        }
+    }
+}
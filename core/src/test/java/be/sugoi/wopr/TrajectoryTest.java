@@ -0,0 +1,93 @@
+package be.sugoi.wopr;
+
+import com.badlogic.gdx.math.Vector2;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.junit.runners.Parameterized.Parameters;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.lang.Math.*;
+import static org.junit.Assert.assertEquals;
+
+/// Pins the great circle kernel against the original trajectory implementation.
+@RunWith(Parameterized.class)
+public class TrajectoryTest {
+    private static final double DEGREES_TOLERANCE = 1e-4;
+
+    private final Vector2 a;
+    private final Vector2 b;
+    private final int numPoints;
+
+    public TrajectoryTest(Vector2 a, Vector2 b, int numPoints) {
+        this.a = a;
+        this.b = b;
+        this.numPoints = numPoints;
+    }
+
+    @Parameters
+    public static List<Object[]> data() {
+        return List.of(new Object[][] {
+            // Mons -> Liège
+            { new Vector2(3.7550468f, 50.346334f), new Vector2(5.2154228f, 51.258733f), 10 },
+            // Moscow -> New York, over the pole
+            { new Vector2(37.6173f, 55.7558f), new Vector2(-74.006f, 40.7128f), 600 },
+            // Brest -> Vladivostok
+            { new Vector2(-4.4861f, 48.3904f), new Vector2(131.8855f, 43.1155f), 900 },
+            // Across the antimeridian
+            { new Vector2(170.0f, -40.0f), new Vector2(-150.0f, 20.0f), 300 },
+            // Southern hemisphere
+            { new Vector2(-58.3816f, -34.6037f), new Vector2(151.2093f, -33.8688f), 1000 },
+            // Short hop
+            { new Vector2(2.3522f, 48.8566f), new Vector2(2.4f, 48.9f), 1 },
+        });
+    }
+
+    @Test
+    public void testEquidistantPoints() {
+        var expected = legacyEquidistantPoints(a, b, numPoints);
+        var actual = Trajectory.generateEquidistantPoints(a, b, numPoints);
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i).x, actual.get(i).x, DEGREES_TOLERANCE);
+            assertEquals(expected.get(i).y, actual.get(i).y, DEGREES_TOLERANCE);
+        }
+    }
+
+    @Test
+    public void testPointAt() {
+        var expected = legacyEquidistantPoints(a, b, numPoints);
+        var arc = new GreatCircle(a, b);
+        var out = new Vector2();
+        for (int i = 0; i < numPoints; i++) {
+            arc.pointAt((double) (i + 1) / (numPoints + 1), out);
+            assertEquals(expected.get(i).x, out.x, DEGREES_TOLERANCE);
+            assertEquals(expected.get(i).y, out.y, DEGREES_TOLERANCE);
+        }
+    }
+
+    /// The original implementation, kept as a reference.
+    private static List<Vector2> legacyEquidistantPoints(Vector2 a, Vector2 b, int numPoints) {
+        List<Vector2> points = new ArrayList<>();
+        double lat1 = toRadians(a.y);
+        double lon1 = toRadians(a.x);
+        double lat2 = toRadians(b.y);
+        double lon2 = toRadians(b.x);
+
+        for (int i = 1; i <= numPoints; i++) {
+            double f = (double) i / (numPoints + 1);
+            double d = Trajectory.haversine(lon1, lat1, lon2, lat2);
+            double A = sin((1 - f) * d) / sin(d);
+            double B = sin(f * d) / sin(d);
+            double x = A * cos(lat1) * cos(lon1) + B * cos(lat2) * cos(lon2);
+            double y = A * cos(lat1) * sin(lon1) + B * cos(lat2) * sin(lon2);
+            double z = A * sin(lat1) + B * sin(lat2);
+            double lat = atan2(z, sqrt(x * x + y * y));
+            double lon = atan2(y, x);
+            points.add(new Vector2((float) toDegrees(lon), (float) toDegrees(lat)));
+        }
+        return points;
+    }
+}
@@ -46,4 +46,18 @@ public class WGS84Test {
         assertEquals(expected.x, result.x, 0.000001);
         assertEquals(expected.y, result.y, 0.000001);
     }
+
+    @Test
+    public void testToMercator() {
+        // The row, then a point beyond the count, left alone
+        float[] lons = {lon, 10f};
+        float[] lats = {lat, 10f};
+        float[] xs = {0f, -1f};
+        float[] ys = {0f, -1f};
+        WGS84.toMercator(lons, lats, xs, ys, 1);
+        assertEquals(expected.x, xs[0], 0.000001);
+        assertEquals(expected.y, ys[0], 0.000001);
+        assertEquals(-1f, xs[1], 0);
+        assertEquals(-1f, ys[1], 0);
+    }
 }
@@ -0,0 +1,115 @@
+package be.sugoi.wopr.programs.thermo.entities;
+
+import com.badlogic.gdx.math.Rectangle;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/// Pins grid queries against a linear scan of the table.
+public class CityGridTest {
+    // Grid cells per axis, see CityGrid
+    private static final float CELL = 1f / 128;
+    private static final int[] THRESHOLDS = {0, 100_000, 1_000_000, Integer.MAX_VALUE};
+
+    private final CityTable table = sampleTable();
+    private final CityGrid grid = new CityGrid(table);
+
+    private static CityTable sampleTable() {
+        var builder = new CityTable.Builder();
+        var random = new SplittableRandom(11);
+        for (int i = 0; i < 5000; i++) {
+            builder.add("City" + i,
+                (float) random.nextDouble(-180, 180),
+                (float) random.nextDouble(-90, 90),
+                "C" + (i % 7),
+                random.nextInt(0, 5_000_000));
+        }
+        // Exactly on cell edges
+        for (int i = 0; i <= 128; i += 8) {
+            builder.add("Edge" + i, i * CELL * 360 - 180, 0f, "CE", 500_000);
+        }
+        // On the map boundary, and beyond the Mercator clamping latitude
+        builder.add("West", -180f, 10f, "CB", 200_000);
+        builder.add("East", 180f, 10f, "CB", 200_000);
+        builder.add("North", 10f, 90f, "CB", 200_000);
+        builder.add("South", 10f, -90f, "CB", 200_000);
+        // Same population, same cell
+        builder.add("TwinA", 3f, 3f, "CT", 1_000_000);
+        builder.add("TwinB", 3.001f, 3.001f, "CT", 1_000_000);
+        return builder.build();
+    }
+
+    @Test
+    public void testRandomAreas() {
+        var random = new SplittableRandom(5);
+        for (int i = 0; i < 200; i++) {
+            var x = (float) random.nextDouble(-0.2, 1.1);
+            var y = (float) random.nextDouble(-0.2, 1.1);
+            var area = new Rectangle(x, y, (float) random.nextDouble(0, 0.4), (float) random.nextDouble(0, 0.4));
+            assertSameCities(area);
+        }
+    }
+
+    @Test
+    public void testCellEdges() {
+        // Areas starting and ending exactly on cell edges
+        for (int i = 0; i < 128; i += 5) {
+            assertSameCities(new Rectangle(i * CELL, 0.25f, 3 * CELL, 0.5f));
+            assertSameCities(new Rectangle(0.25f, i * CELL, 0.5f, 3 * CELL));
+            assertSameCities(new Rectangle(i * CELL, i * CELL, CELL, CELL));
+        }
+        // Degenerate area on an edge
+        assertSameCities(new Rectangle(64 * CELL, 0, 0, 1));
+    }
+
+    @Test
+    public void testMapBoundary() {
+        assertSameCities(new Rectangle(0, 0, 1, 1));
+        assertSameCities(new Rectangle(-0.5f, -0.5f, 2, 2));
+        assertSameCities(new Rectangle(-0.1f, 0.2f, 0.15f, 0.3f));
+        assertSameCities(new Rectangle(0.95f, 0.2f, 0.2f, 0.3f));
+        assertSameCities(new Rectangle(0.2f, -0.1f, 0.3f, 0.15f));
+        assertSameCities(new Rectangle(0.2f, 0.95f, 0.3f, 0.2f));
+        // Entirely outside
+        assertSameCities(new Rectangle(1.5f, 1.5f, 0.2f, 0.2f));
+        assertSameCities(new Rectangle(-0.5f, -0.5f, 0.2f, 0.2f));
+    }
+
+    @Test
+    public void testWholeWorldFindsEveryCity() {
+        var found = query(new Rectangle(0, 0, 1, 1), 0);
+        assertEquals(table.size(), found.size());
+    }
+
+    private void assertSameCities(Rectangle area) {
+        for (var threshold : THRESHOLDS) {
+            var expected = scan(area, threshold);
+            var actual = query(area, threshold);
+            assertEquals(area + " >= " + threshold, expected, actual);
+        }
+    }
+
+    private List<Integer> query(Rectangle area, int minPopulation) {
+        var found = new ArrayList<Integer>();
+        grid.forEach(area, minPopulation, found::add);
+        found.sort(null);
+        // Each city at most once
+        assertTrue(found.stream().distinct().count() == found.size());
+        return found;
+    }
+
+    private List<Integer> scan(Rectangle area, int minPopulation) {
+        var found = new ArrayList<Integer>();
+        for (int id = 0; id < table.size(); id++) {
+            if (table.population(id) >= minPopulation && area.contains(table.mercatorX(id), table.mercatorY(id))) {
+                found.add(id);
+            }
+        }
+        return found;
+    }
+}
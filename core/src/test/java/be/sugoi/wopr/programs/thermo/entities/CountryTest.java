@@ -0,0 +1,57 @@
+package be.sugoi.wopr.programs.thermo.entities;
+
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.math.Vector2;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class CountryTest {
+    private static Polygon square(float lon, float lat, float size) {
+        return Polygon.of(List.of(
+            new Vector2(lon, lat), new Vector2(lon + size, lat), new Vector2(lon + size, lat + size),
+            new Vector2(lon, lat + size), new Vector2(lon, lat)));
+    }
+
+    @Test
+    public void testBoundsCoverEveryPolygon() {
+        var country = new Country("Two Islands", "TI", 1000,
+            List.of(square(0f, 0f, 10f), square(20f, -10f, 5f)), new Vector2(5f, 5f));
+        var bounds = country.bounds(new Rectangle());
+        var expected = square(0f, 0f, 10f).bounds(new Rectangle())
+            .merge(square(20f, -10f, 5f).bounds(new Rectangle()));
+        assertEquals(expected.x, bounds.x, 0);
+        assertEquals(expected.y, bounds.y, 0);
+        assertEquals(expected.width, bounds.width, 0);
+        assertEquals(expected.height, bounds.height, 0);
+        assertTrue(country.overlaps(new Rectangle(bounds.x + bounds.width / 2, bounds.y, 1, 1)));
+        assertFalse(country.overlaps(new Rectangle(bounds.x + bounds.width + 0.01f, bounds.y, 1, 1)));
+    }
+
+    @Test
+    public void testStateCannotBeModified() {
+        var polygons = new ArrayList<>(List.of(square(0f, 0f, 10f)));
+        var labelPosition = new Vector2(5f, 5f);
+        var country = new Country("Square", "SQ", 1000, polygons, labelPosition);
+        var label = country.labelMercator(new Vector2());
+        var bounds = country.bounds(new Rectangle());
+
+        // Neither the arguments, nor what is handed out, are shared
+        polygons.clear();
+        labelPosition.set(0f, 0f);
+        country.labelPosition().set(1f, 1f);
+        country.labelMercator(new Vector2()).set(2f, 2f);
+        country.bounds(new Rectangle()).set(0f, 0f, 0f, 0f);
+
+        assertEquals(1, country.polygons().size());
+        assertEquals(5f, country.labelPosition().x, 0);
+        assertEquals(label.x, country.labelMercator(new Vector2()).x, 0);
+        assertEquals(label.y, country.labelMercator(new Vector2()).y, 0);
+        assertEquals(bounds.width, country.bounds(new Rectangle()).width, 0);
+    }
+}
@@ -0,0 +1,42 @@
+package be.sugoi.wopr.programs.thermo.entities;
+
+import org.junit.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+public class RandomStreamsTest {
+    private static final int DRAWS = 100;
+
+    @Test
+    public void testSameSeedSameSequences() {
+        var a = new RandomStreams(42);
+        var b = new RandomStreams(42);
+        assertArrayEquals(draw(a.targeting()), draw(b.targeting()));
+        assertArrayEquals(draw(a.timing()), draw(b.timing()));
+        assertArrayEquals(draw(a.damage()), draw(b.damage()));
+        assertEquals(42, a.seed());
+    }
+
+    @Test
+    public void testStreamsAreIndependent() {
+        // Drawing from one stream does not shift the others
+        var a = new RandomStreams(7);
+        var b = new RandomStreams(7);
+        draw(a.damage());
+        assertArrayEquals(draw(b.timing()), draw(a.timing()));
+        assertArrayEquals(draw(b.targeting()), draw(a.targeting()));
+    }
+
+    @Test
+    public void testSeedsDiffer() {
+        assertNotEquals(draw(new RandomStreams(1).timing())[0], draw(new RandomStreams(2).timing())[0]);
+    }
+
+    private static int[] draw(SplittableRandom random) {
+        return random.ints(DRAWS).toArray();
+    }
+}
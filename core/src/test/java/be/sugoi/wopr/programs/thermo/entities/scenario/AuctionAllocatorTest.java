@@ -0,0 +1,166 @@
+package be.sugoi.wopr.programs.thermo.entities.scenario;
+
+import be.sugoi.wopr.programs.thermo.entities.City;
+import be.sugoi.wopr.programs.thermo.entities.CityTable;
+import be.sugoi.wopr.programs.thermo.entities.LaunchSite;
+import com.badlogic.gdx.math.Vector2;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+public class AuctionAllocatorTest {
+    private final AuctionAllocator auction = new AuctionAllocator();
+
+    private static List<LaunchSite> sites(SplittableRandom random, int count) {
+        var sites = new ArrayList<LaunchSite>();
+        for (int i = 0; i < count; i++) {
+            sites.add(site("Site" + i, (float) random.nextDouble(-180, 180), (float) random.nextDouble(-60, 70)));
+        }
+        return sites;
+    }
+
+    private static LaunchSite site(String name, float lon, float lat) {
+        return new LaunchSite(name, "XX", new Vector2(lon, lat), LaunchSite.Type.FACILITY);
+    }
+
+    private static List<City> targets(SplittableRandom random, int count) {
+        var builder = new CityTable.Builder();
+        for (int i = 0; i < count; i++) {
+            builder.add("City" + i, (float) random.nextDouble(-180, 180), (float) random.nextDouble(-60, 70), "YY", 1000);
+        }
+        return builder.build().cities();
+    }
+
+    private static int[] capacities(SplittableRandom random, int sites, int min, int max) {
+        return random.ints(sites, min, max + 1).toArray();
+    }
+
+    @Test
+    public void testCapacities() {
+        var random = new SplittableRandom(3);
+        for (int round = 0; round < 20; round++) {
+            var sites = sites(random, 12);
+            var capacities = capacities(random, sites.size(), 0, 8);
+            var total = Arrays.stream(capacities).sum();
+            var targets = targets(random, random.nextInt(1, total + 1));
+            for (var allocator : List.of(auction, new GreedyAllocator())) {
+                var used = new int[sites.size()];
+                for (var site : allocator.allocate(sites, capacities, targets).sites()) {
+                    used[site]++;
+                }
+                for (int site = 0; site < sites.size(); site++) {
+                    assertTrue(allocator.name(), used[site] <= capacities[site]);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testExactCapacity() {
+        // Every slot is needed
+        var random = new SplittableRandom(4);
+        var sites = sites(random, 5);
+        var capacities = new int[] {3, 0, 4, 1, 2};
+        var targets = targets(random, 10);
+        var used = new int[sites.size()];
+        for (var site : auction.allocate(sites, capacities, targets).sites()) {
+            used[site]++;
+        }
+        assertArrayEquals(capacities, used);
+    }
+
+    @Test
+    public void testInsufficientCapacity() {
+        var random = new SplittableRandom(5);
+        var sites = sites(random, 3);
+        var targets = targets(random, 7);
+        assertThrows(IllegalStateException.class, () -> auction.allocate(sites, new int[] {2, 2, 2}, targets));
+    }
+
+    @Test
+    public void testNoWorseThanGreedy() {
+        var random = new SplittableRandom(6);
+        for (int round = 0; round < 20; round++) {
+            var sites = sites(random, 20);
+            // Tight capacities, where greedy sends the last warheads from far away
+            var capacities = capacities(random, sites.size(), 1, 6);
+            var targets = targets(random, Arrays.stream(capacities).sum() * 9 / 10);
+            var greedy = new GreedyAllocator().allocate(sites, capacities, targets).report();
+            var report = auction.allocate(sites, capacities, targets).report();
+            assertTrue(report.totalDistance() <= greedy.totalDistance() + targets.size() * AuctionAllocator.EPSILON);
+        }
+    }
+
+    @Test
+    public void testNearOptimal() {
+        // Small enough to enumerate every allocation
+        var random = new SplittableRandom(7);
+        for (int round = 0; round < 10; round++) {
+            var sites = sites(random, 3);
+            var capacities = new int[] {2, 3, 2};
+            var targets = targets(random, 6);
+            var vectors = UnitVectors.of(sites, LaunchSite::coord);
+            var targetVectors = UnitVectors.of(targets, City::coord);
+            var optimum = optimum(vectors, targetVectors, capacities.clone(), 0);
+            var report = auction.allocate(sites, capacities, targets).report();
+            assertTrue(report.totalDistance() <= optimum + targets.size() * AuctionAllocator.EPSILON + 1e-9);
+            assertTrue(report.totalDistance() >= optimum - 1e-9);
+        }
+    }
+
+    private static double optimum(UnitVectors sites, UnitVectors targets, int[] capacities, int target) {
+        if (target == targets.size()) {
+            return 0;
+        }
+        var best = Double.POSITIVE_INFINITY;
+        for (int site = 0; site < sites.size(); site++) {
+            if (capacities[site] > 0) {
+                capacities[site]--;
+                best = Math.min(best,
+                    sites.angle(site, targets, target) + optimum(sites, targets, capacities, target + 1));
+                capacities[site]++;
+            }
+        }
+        return best;
+    }
+
+    @Test
+    public void testDeterministic() {
+        var random = new SplittableRandom(8);
+        var sites = sites(random, 30);
+        var capacities = capacities(random, sites.size(), 0, 20);
+        var targets = targets(random, 250);
+        var first = auction.allocate(sites, capacities, targets).sites();
+        for (int i = 0; i < 5; i++) {
+            assertArrayEquals(first, auction.allocate(sites, capacities, targets).sites());
+        }
+    }
+
+    @Test
+    public void testTiesGoToLowestSite() {
+        // Identical sites: every warhead goes to the first one with capacity
+        var sites = List.of(site("A", 10f, 20f), site("B", 10f, 20f), site("C", 10f, 20f));
+        var targets = targets(new SplittableRandom(9), 5);
+        assertArrayEquals(new int[] {1, 1, 1, 1, 1}, auction.allocate(sites, new int[] {0, 5, 5}, targets).sites());
+        assertArrayEquals(new int[] {0, 0, 0, 0, 0}, auction.allocate(sites, new int[] {5, 5, 5}, targets).sites());
+    }
+
+    @Test
+    public void testTiesAreSplitDeterministically() {
+        // Identical sites, too small for all warheads
+        var sites = List.of(site("A", 10f, 20f), site("B", 10f, 20f));
+        var targets = targets(new SplittableRandom(10), 6);
+        var capacities = new int[] {3, 3};
+        var first = auction.allocate(sites, capacities, targets).sites();
+        assertArrayEquals(first, auction.allocate(sites, capacities, targets).sites());
+        assertEquals(3, Arrays.stream(first).filter(site -> site == 0).count());
+    }
+}
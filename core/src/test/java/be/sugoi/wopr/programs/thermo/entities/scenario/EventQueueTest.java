@@ -0,0 +1,136 @@
+package be.sugoi.wopr.programs.thermo.entities.scenario;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.SplittableRandom;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+public class EventQueueTest {
+
+    @Test
+    public void testPollsInTimeOrder() {
+        var queue = new EventQueue(16);
+        var random = new SplittableRandom(3);
+        for (int event = 0; event < 1000; event++) {
+            queue.add(random.nextDouble(0, 100), event);
+        }
+        var previous = Double.NEGATIVE_INFINITY;
+        while (!queue.isEmpty()) {
+            var time = queue.peekTime();
+            queue.poll();
+            assertTrue(time >= previous);
+            previous = time;
+        }
+    }
+
+    @Test
+    public void testEqualTimesOrderedByCode() {
+        var queue = new EventQueue(8);
+        for (var event : new int[] {7, 3, 5, 0, 6, 1, 4, 2}) {
+            queue.add(10.0, event);
+        }
+        for (int expected = 0; expected < 8; expected++) {
+            assertEquals(expected, queue.poll());
+        }
+    }
+
+    @Test
+    public void testTiesDoNotDependOnInsertionOrder() {
+        var forward = new EventQueue(4);
+        var backward = new EventQueue(4);
+        for (int event = 0; event < 50; event++) {
+            forward.add(event % 5, event);
+            backward.add((49 - event) % 5, 49 - event);
+        }
+        while (!forward.isEmpty()) {
+            assertEquals(forward.peekTime(), backward.peekTime(), 0.0);
+            assertEquals(forward.poll(), backward.poll());
+        }
+        assertTrue(backward.isEmpty());
+    }
+
+    @Test
+    public void testGrowsPastInitialCapacity() {
+        var queue = new EventQueue(1);
+        for (int event = 99; event >= 0; event--) {
+            queue.add(event, event);
+        }
+        assertEquals(100, queue.size());
+        for (int expected = 0; expected < 100; expected++) {
+            assertEquals(expected, queue.poll());
+        }
+    }
+
+    @Test
+    public void testRetaliationInsertedWhileDraining() {
+        // Launches of the first strike, and the retaliation
+        var queue = new EventQueue(4);
+        queue.add(0.0, ScenarioScheduler.launchEvent(0));
+        queue.add(60.0, ScenarioScheduler.launchEvent(1));
+        queue.add(60.0, ScenarioScheduler.RETALIATION);
+        List<Integer> order = new ArrayList<>();
+        while (!queue.isEmpty()) {
+            var time = queue.peekTime();
+            var event = queue.poll();
+            order.add(event);
+            if (event == ScenarioScheduler.RETALIATION) {
+                // Retaliation launches, one of them due at once
+                queue.add(time, ScenarioScheduler.launchEvent(2));
+                queue.add(time + 5, ScenarioScheduler.launchEvent(3));
+            } else if (ScenarioScheduler.isLaunch(event)) {
+                queue.add(time + 100, ScenarioScheduler.arrivalEvent(ScenarioScheduler.nukeId(event)));
+            }
+        }
+        assertEquals(List.of(
+            ScenarioScheduler.launchEvent(0),
+            ScenarioScheduler.RETALIATION,
+            ScenarioScheduler.launchEvent(1),
+            ScenarioScheduler.launchEvent(2),
+            ScenarioScheduler.launchEvent(3),
+            ScenarioScheduler.arrivalEvent(0),
+            ScenarioScheduler.arrivalEvent(1),
+            ScenarioScheduler.arrivalEvent(2),
+            ScenarioScheduler.arrivalEvent(3)
+        ), order);
+    }
+
+    @Test
+    public void testClearKeepsWorking() {
+        var queue = new EventQueue(2);
+        queue.add(1.0, 1);
+        queue.add(2.0, 2);
+        queue.clear();
+        assertTrue(queue.isEmpty());
+        queue.add(3.0, 3);
+        assertEquals(3.0, queue.peekTime(), 0.0);
+        assertEquals(3, queue.poll());
+    }
+
+    @Test
+    public void testEmptyQueueThrows() {
+        var queue = new EventQueue(2);
+        assertThrows(NoSuchElementException.class, queue::poll);
+        assertThrows(NoSuchElementException.class, queue::peekTime);
+    }
+
+    @Test
+    public void testEventCodes() {
+        for (var id : new int[] {0, 1, 2, 12345, (Integer.MAX_VALUE >>> 1)}) {
+            var launch = ScenarioScheduler.launchEvent(id);
+            var arrival = ScenarioScheduler.arrivalEvent(id);
+            assertTrue(ScenarioScheduler.isLaunch(launch));
+            assertTrue(!ScenarioScheduler.isLaunch(arrival));
+            assertEquals(id, ScenarioScheduler.nukeId(launch));
+            assertEquals(id, ScenarioScheduler.nukeId(arrival));
+            // At the same time, the retaliation comes first, and a launch before its arrival
+            assertTrue(ScenarioScheduler.RETALIATION < launch);
+            assertTrue(launch < arrival);
+        }
+    }
+}
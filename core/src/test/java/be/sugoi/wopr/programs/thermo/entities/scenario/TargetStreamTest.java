@@ -0,0 +1,89 @@
+package be.sugoi.wopr.programs.thermo.entities.scenario;
+
+import be.sugoi.wopr.programs.thermo.entities.City;
+import be.sugoi.wopr.programs.thermo.entities.CityTable;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+public class TargetStreamTest {
+    // A, B, C, D by priority
+    private final List<City> cities = new CityTable.Builder()
+        .add("A", 0f, 0f, "XX", 400)
+        .add("B", 1f, 1f, "XX", 300)
+        .add("C", 2f, 2f, "XX", 200)
+        .add("D", 3f, 3f, "XX", 100)
+        .build()
+        .cities();
+
+    private static String names(List<City> targets) {
+        return String.join("", targets.stream().map(City::name).toList());
+    }
+
+    @Test
+    public void testRoundRobin() {
+        var stream = new TargetStream(cities, TargetStream.Weighting.NONE);
+        assertEquals("ABCD", names(stream.take(4)));
+        assertEquals("AB", names(stream.take(2)));
+    }
+
+    @Test
+    public void testTakePastAvailableTargets() {
+        var stream = new TargetStream(cities, TargetStream.Weighting.NONE);
+        assertEquals("ABCDABCDAB", names(stream.take(10)));
+        assertTrue(stream.hasNext());
+    }
+
+    @Test
+    public void testTakeNothing() {
+        var stream = new TargetStream(cities, TargetStream.Weighting.NONE);
+        assertTrue(stream.take(0).isEmpty());
+        assertEquals("A", stream.next().name());
+    }
+
+    @Test
+    public void testMultiHit() {
+        // The two biggest cities are hit three times per round
+        var stream = new TargetStream(cities, new TargetStream.Weighting(2, 3));
+        assertEquals("AAABBBCD" + "AAABBBCD" + "AA", names(stream.take(18)));
+    }
+
+    @Test
+    public void testMultiHitAllCities() {
+        // More weighted cities than cities
+        var stream = new TargetStream(cities, new TargetStream.Weighting(10, 2));
+        assertEquals("AABBCCDDAA", names(stream.take(10)));
+    }
+
+    @Test
+    public void testSingleCity() {
+        var stream = new TargetStream(cities.subList(0, 1), new TargetStream.Weighting(1, 2));
+        assertEquals("AAAAA", names(stream.take(5)));
+    }
+
+    @Test
+    public void testExhausted() {
+        var stream = new TargetStream(List.of(), TargetStream.Weighting.NONE);
+        assertFalse(stream.hasNext());
+        assertThrows(NoSuchElementException.class, stream::next);
+        assertThrows(NoSuchElementException.class, () -> stream.take(1));
+        assertTrue(stream.take(0).isEmpty());
+    }
+
+    @Test
+    public void testWeighting() {
+        var weighting = new TargetStream.Weighting(2, 3);
+        assertEquals(3, weighting.hitsPerRound(0));
+        assertEquals(3, weighting.hitsPerRound(1));
+        assertEquals(1, weighting.hitsPerRound(2));
+        assertEquals(1, TargetStream.Weighting.NONE.hitsPerRound(0));
+        assertThrows(IllegalArgumentException.class, () -> new TargetStream.Weighting(-1, 2));
+        assertThrows(IllegalArgumentException.class, () -> new TargetStream.Weighting(2, 0));
+    }
+}
@@ -0,0 +1,95 @@
+package be.sugoi.wopr.programs.thermo.screens;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+/// Pins the grouping of visible countries into draw calls.
+public class WorldOutlinesTest {
+    // Five countries, of 4, 2, 0, 6 and 2 vertices
+    private static final int[] FIRST = {0, 4, 6, 6, 12, 14};
+
+    private static int[] runs(int[] first, boolean... visible) {
+        var runs = new int[visible.length + 1];
+        var count = WorldOutlines.runs(first, visible, runs);
+        return Arrays.copyOf(runs, count * 2);
+    }
+
+    @Test
+    public void testAllVisible() {
+        assertArrayEquals(new int[] {0, 14}, runs(FIRST, true, true, true, true, true));
+    }
+
+    @Test
+    public void testNoneVisible() {
+        assertArrayEquals(new int[] {}, runs(FIRST, false, false, false, false, false));
+    }
+
+    @Test
+    public void testAlternate() {
+        assertArrayEquals(new int[] {0, 4, 6, 12}, runs(FIRST, true, false, false, true, false));
+        assertArrayEquals(new int[] {4, 6, 12, 14}, runs(FIRST, false, true, false, false, true));
+    }
+
+    @Test
+    public void testLastCountryEndsTheRun() {
+        assertArrayEquals(new int[] {12, 14}, runs(FIRST, false, false, false, false, true));
+        assertArrayEquals(new int[] {6, 14}, runs(FIRST, false, false, true, true, true));
+    }
+
+    @Test
+    public void testFirstCountryStartsTheRun() {
+        assertArrayEquals(new int[] {0, 6}, runs(FIRST, true, true, false, false, false));
+    }
+
+    @Test
+    public void testEmptyCountries() {
+        // A visible country without vertices draws nothing, and does not split a run
+        assertArrayEquals(new int[] {}, runs(FIRST, false, false, true, false, false));
+        assertArrayEquals(new int[] {4, 12}, runs(FIRST, false, true, true, true, false));
+        // Nor does a hidden one
+        assertArrayEquals(new int[] {4, 12}, runs(FIRST, false, true, false, true, false));
+    }
+
+    @Test
+    public void testLevelOffset() {
+        // Countries of a coarser level start after the previous levels
+        var first = Arrays.stream(FIRST).map(vertex -> vertex + 100).toArray();
+        assertArrayEquals(new int[] {100, 104, 112, 114}, runs(first, true, false, false, false, true));
+    }
+
+    @Test
+    public void testRandomCoverage() {
+        // Runs cover exactly the vertices of the visible countries, in order, without touching each other
+        var random = new SplittableRandom(12);
+        for (int round = 0; round < 500; round++) {
+            var countries = random.nextInt(0, 40);
+            var first = new int[countries + 1];
+            var visible = new boolean[countries];
+            for (int i = 0; i < countries; i++) {
+                first[i + 1] = first[i] + random.nextInt(0, 3) * 2;
+                visible[i] = random.nextBoolean();
+            }
+            var expected = new boolean[first[countries]];
+            for (int i = 0; i < countries; i++) {
+                if (visible[i]) {
+                    Arrays.fill(expected, first[i], first[i + 1], true);
+                }
+            }
+            var runs = runs(first, visible);
+            var actual = new boolean[first[countries]];
+            for (int run = 0; run < runs.length; run += 2) {
+                assertEquals(true, runs[run] < runs[run + 1]);
+                if (run > 0) {
+                    assertEquals(true, runs[run - 1] < runs[run]);
+                }
+                Arrays.fill(actual, runs[run], runs[run + 1], true);
+            }
+            assertEquals(Arrays.toString(expected), Arrays.toString(actual));
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package be.sugoi.wopr.sim;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/// Outcomes are reproducible from the seed, whatever the number of threads.
+public class EnsembleTest {
+    private static final int REPLICAS = 24;
+    private static final long SEED = 1983;
+
+    @Test
+    public void testSameSeedSameOutcome() throws IOException {
+        var template = SampleWorld.load().scenario(0);
+        for (long seed = 0; seed < 5; seed++) {
+            var first = new SimulationEngine(template.newRun(seed)).resolve();
+            var second = new SimulationEngine(template.newRun(seed)).resolve();
+            assertEquals(first, second);
+            assertTrue(first.fatalities() > 0);
+        }
+    }
+
+    @Test
+    public void testReplicasDiffer() throws IOException {
+        var template = SampleWorld.load().scenario(0);
+        var outcomes = new Ensemble(template, 1).outcomes(SEED, REPLICAS);
+        assertTrue(Arrays.stream(outcomes).distinct().count() > 1);
+    }
+
+    @Test
+    public void testOutcomesDoNotDependOnThreads() throws IOException {
+        var template = SampleWorld.load().scenario(0);
+        var sequential = new Ensemble(template, 1).outcomes(SEED, REPLICAS);
+        var parallel = new Ensemble(template, 4).outcomes(SEED, REPLICAS);
+        assertArrayEquals(sequential, parallel);
+        // Each replica is the run of its own seed
+        var seeds = Ensemble.replicaSeeds(SEED, REPLICAS);
+        for (int replica = 0; replica < REPLICAS; replica++) {
+            assertEquals(new SimulationEngine(template.newRun(seeds[replica])).resolve(), parallel[replica]);
+        }
+    }
+
+    @Test
+    public void testStatisticsDoNotDependOnThreads() throws IOException {
+        var template = SampleWorld.load().scenario(0);
+        var sequential = new Ensemble(template, 1).run(SEED, REPLICAS);
+        var parallel = new Ensemble(template, 4).run(SEED, REPLICAS);
+        assertTrue(parallel.isComplete());
+        assertEquals(sequential, parallel);
+    }
+
+    @Test
+    public void testDistributionIsAValue() {
+        var distribution = FatalityDistribution.of("A", 100, new int[] {10, 50, 90}, 3);
+        var same = FatalityDistribution.of("A", 100, new int[] {90, 10, 50}, 3);
+        assertEquals(distribution, same);
+        assertEquals(distribution.hashCode(), same.hashCode());
+        // The histogram cannot be changed from outside
+        distribution.histogram()[0] = 42;
+        assertEquals(same, distribution);
+        var histogram = distribution.histogram();
+        var copy = new FatalityDistribution("A", 100, 3, 50, 10, 90, 10, 50, 90, histogram);
+        histogram[0] = 42;
+        assertEquals(distribution, copy);
+    }
+}
@@ -0,0 +1,146 @@
+package be.sugoi.wopr.sim;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/// A small synthetic world, written to a temporary assets directory:
+/// two square countries facing each other, a few dozen cities each,
+/// launch sites on both sides and two-party scenarios.
+///
+/// The first strike is drawn for each run, so that the seed decides
+/// everything: first strike, launch timing and damage rolls.
+final class SampleWorld {
+    static final List<String> COUNTRY_CODES = List.of("AA", "BB");
+    static final int CITIES_PER_COUNTRY = 30;
+    // More warheads than enemy cities, so that some cities are hit several times
+    static final int WARHEADS = 40;
+    /// Scenario where Alpha hits the biggest cities several times, see [#MULTI_HIT]
+    static final int MULTI_HIT_SCENARIO = 1;
+    /// Alpha multi-hit weighting: cities, hits
+    static final int[] MULTI_HIT = {3, 2};
+
+    private static WorldData world;
+
+    private SampleWorld() {
+        // Not meant to be instantiated
+    }
+
+    /// The world, written once per test run.
+    static synchronized WorldData load() {
+        if (world == null) {
+            try {
+                var assets = Files.createTempDirectory("wopr-sample-world");
+                assets.toFile().deleteOnExit();
+                write(assets, "custom.geo.json", countries().toString());
+                write(assets, "worldcities.csv", cities());
+                write(assets, "scenarios.json", scenarios().toString());
+                world = WorldData.load(assets);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        return world;
+    }
+
+    private static void write(Path assets, String filename, String text) throws IOException {
+        var file = Files.writeString(assets.resolve(filename), text);
+        file.toFile().deleteOnExit();
+    }
+
+    // West edge of a country, in degrees
+    private static float west(int country) {
+        return -60f + country * 80f;
+    }
+
+    private static JSONObject countries() {
+        var features = new JSONArray();
+        for (int c = 0; c < COUNTRY_CODES.size(); c++) {
+            var west = west(c);
+            var ring = new JSONArray(List.of(
+                List.of(west, 30f), List.of(west + 40f, 30f), List.of(west + 40f, 60f),
+                List.of(west, 60f), List.of(west, 30f)));
+            features.put(new JSONObject()
+                .put("type", "Feature")
+                .put("properties", new JSONObject()
+                    .put("label_x", west + 20f)
+                    .put("label_y", 45f)
+                    .put("name_en", "Country" + COUNTRY_CODES.get(c))
+                    .put("iso_a2_eh", COUNTRY_CODES.get(c))
+                    .put("pop_est", 50_000_000))
+                .put("geometry", new JSONObject()
+                    .put("type", "Polygon")
+                    .put("coordinates", new JSONArray().put(ring))));
+        }
+        return new JSONObject().put("type", "FeatureCollection").put("features", features);
+    }
+
+    private static String cities() {
+        var random = new SplittableRandom(1);
+        var csv = new StringBuilder("\"city\",\"city_ascii\",\"lat\",\"lng\",\"country\",\"iso2\",\"iso3\","
+            + "\"admin_name\",\"capital\",\"population\",\"id\"\n");
+        var id = 0;
+        for (int c = 0; c < COUNTRY_CODES.size(); c++) {
+            for (int i = 0; i < CITIES_PER_COUNTRY; i++, id++) {
+                var name = "City" + COUNTRY_CODES.get(c) + i;
+                var lat = random.nextDouble(31, 59);
+                var lon = random.nextDouble(west(c) + 1, west(c) + 39);
+                var population = random.nextInt(10_000, 5_000_000);
+                csv.append(String.format("\"%s\",\"%s\",\"%.4f\",\"%.4f\",\"X\",\"%s\",\"XXX\",\"adm\",\"\",\"%d\",\"%d\"%n",
+                    name, name, lat, lon, COUNTRY_CODES.get(c), population, id));
+            }
+        }
+        return csv.toString();
+    }
+
+    private static JSONObject scenarios() {
+        var launchSites = new JSONArray();
+        for (int c = 0; c < COUNTRY_CODES.size(); c++) {
+            var sites = new JSONArray();
+            for (int s = 0; s < 3; s++) {
+                sites.put(site("Silo" + COUNTRY_CODES.get(c) + s, "facility", west(c) + 10f + s * 10f, 40f + s * 5f));
+            }
+            sites.put(site("Sub" + COUNTRY_CODES.get(c), "submarine", west(c) + 20f, 20f));
+            launchSites.put(new JSONObject().put("country", COUNTRY_CODES.get(c)).put("sites", sites));
+        }
+        var scenario = new JSONObject()
+            .put("short", "Sample")
+            .put("description", "Two countries, one war")
+            .put("initialMapView", "world")
+            .put("parties", new JSONArray()
+                .put(party("Alpha", COUNTRY_CODES.get(0), "Bravo"))
+                .put(party("Bravo", COUNTRY_CODES.get(1), "Alpha")));
+        var multiHit = new JSONObject()
+            .put("short", "Sample multi-hit")
+            .put("description", "Alpha hits the biggest cities twice")
+            .put("initialMapView", "world")
+            .put("parties", new JSONArray()
+                .put(party("Alpha", COUNTRY_CODES.get(0), "Bravo")
+                    .put("multiHit", new JSONObject().put("cities", MULTI_HIT[0]).put("hits", MULTI_HIT[1])))
+                .put(party("Bravo", COUNTRY_CODES.get(1), "Alpha")));
+        return new JSONObject()
+            .put("launchSites", launchSites)
+            .put("scenarios", new JSONArray().put(scenario).put(multiHit));
+    }
+
+    private static JSONObject site(String name, String type, float lon, float lat) {
+        return new JSONObject()
+            .put("name", name)
+            .put("type", type)
+            .put("coord", new JSONObject().put("lat", lat).put("lon", lon));
+    }
+
+    private static JSONObject party(String name, String countryCode, String enemy) {
+        return new JSONObject()
+            .put("name", name)
+            .put("countryCodes", new JSONArray().put(countryCode))
+            .put("enemies", new JSONArray().put(enemy))
+            .put("warheads", WARHEADS);
+    }
+}
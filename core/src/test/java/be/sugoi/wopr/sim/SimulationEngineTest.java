@@ -0,0 +1,131 @@
+package be.sugoi.wopr.sim;
+
+import be.sugoi.wopr.programs.thermo.entities.City;
+import be.sugoi.wopr.programs.thermo.entities.Detonation;
+import be.sugoi.wopr.programs.thermo.entities.scenario.ScenarioTemplate;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/// Resolving a run at once is the same as animating it tick by tick.
+public class SimulationEngineTest {
+    private static final int SEEDS = 8;
+
+    @Test
+    public void testResolveMatchesSteppedRun() throws IOException {
+        var template = SampleWorld.load().scenario(0);
+        for (long seed = 0; seed < SEEDS; seed++) {
+            var stepped = animated(template, seed);
+            while (!stepped.isTerminated()) {
+                stepped.step();
+            }
+            var resolved = animated(template, seed);
+            resolved.resolve();
+            assertSameRun(template, stepped, resolved);
+        }
+    }
+
+    @Test
+    public void testResolveMatchesFrameDrivenRun() throws IOException {
+        // Uneven frames, with a tick budget, as when driven by a renderer
+        var template = SampleWorld.load().scenario(0);
+        var frames = new float[] {0.016f, 0.033f, 0.25f, 0.007f};
+        for (long seed = 0; seed < SEEDS; seed++) {
+            var animated = animated(template, seed);
+            for (int frame = 0; !animated.isTerminated(); frame++) {
+                animated.advance(frames[frame % frames.length], 2);
+            }
+            var resolved = animated(template, seed);
+            resolved.resolve();
+            assertSameRun(template, animated, resolved);
+        }
+    }
+
+    @Test
+    public void testResolveAfterSomeSteps() throws IOException {
+        var template = SampleWorld.load().scenario(0);
+        var stepped = animated(template, 3);
+        stepped.run();
+        var resumed = animated(template, 3);
+        for (int i = 0; i < 100; i++) {
+            resumed.step();
+        }
+        resumed.resolve();
+        assertSameRun(template, stepped, resumed);
+    }
+
+    @Test
+    public void testHeadlessRunKeepsNoDetonation() throws IOException {
+        var template = SampleWorld.load().scenario(0);
+        var engine = new SimulationEngine(template.newRun(5));
+        engine.resolve();
+        assertEquals(template.fleet().nukes().size(), engine.scenario().detonations());
+        assertTrue(engine.scenario().activeDetonations().isEmpty());
+    }
+
+    @Test
+    public void testAnimatedRunHandsOverFinishedDetonations() throws IOException {
+        var template = SampleWorld.load().scenario(0);
+        var run = template.newRun(5);
+        run.setAnimated(true);
+        var engine = new SimulationEngine(run);
+        List<City> retired = new ArrayList<>();
+        var duration = Detonation.GROWTH_DURATION + Detonation.FULL_PEAK_DURATION + Detonation.DECAY_DURATION;
+        // Detonations so far, one and two frames ago
+        var previous = 0;
+        var beforePrevious = 0;
+        while (!engine.isTerminated()) {
+            engine.advance(1f);
+            // Frames of half an animation: a detonation is over after its third frame
+            run.animateDetonations(duration / 2, retired::add);
+            assertEquals(beforePrevious, retired.size());
+            assertEquals(run.detonations() - beforePrevious, run.activeDetonations().size());
+            beforePrevious = previous;
+            previous = run.detonations();
+        }
+        run.animateDetonations(duration, retired::add);
+        assertTrue(run.activeDetonations().isEmpty());
+        assertEquals(run.detonations(), retired.size());
+        // Restarting drops the active detonations and stops animating
+        run.restart(6);
+        new SimulationEngine(run).resolve();
+        assertTrue(run.activeDetonations().isEmpty());
+    }
+
+    // Keeps every detonation as long as nothing animates them, in arrival order
+    private static SimulationEngine animated(ScenarioTemplate template, long seed) {
+        var run = template.newRun(seed);
+        run.setAnimated(true);
+        return new SimulationEngine(run);
+    }
+
+    private static void assertSameRun(ScenarioTemplate template, SimulationEngine expected, SimulationEngine actual) {
+        assertTrue(actual.isTerminated());
+        assertEquals(expected.outcome(), actual.outcome());
+        assertEquals(expected.clock(), actual.clock(), 0);
+        // Arrival order
+        assertEquals(cities(expected.scenario().activeDetonations()), cities(actual.scenario().activeDetonations()));
+        assertEquals(template.fleet().nukes().size(), actual.scenario().activeDetonations().size());
+        assertEquals(template.fleet().nukes().size(), actual.scenario().detonations());
+        // Damages, city by city
+        var expectedDamage = expected.scenario().damage();
+        var actualDamage = actual.scenario().damage();
+        assertEquals(expectedDamage.size(), actualDamage.size());
+        for (int i = 0; i < expectedDamage.size(); i++) {
+            assertSame(expectedDamage.city(i), actualDamage.city(i));
+            assertEquals(expectedDamage.hits(i), actualDamage.hits(i));
+            assertEquals(expectedDamage.fatalities(i), actualDamage.fatalities(i));
+        }
+        assertEquals(expected.scenario().fatalities(), actual.scenario().fatalities());
+    }
+
+    private static List<City> cities(List<Detonation> detonations) {
+        return detonations.stream().map(Detonation::city).toList();
+    }
+}
@@ -0,0 +1,71 @@
+package be.sugoi.wopr.sim;
+
+import be.sugoi.wopr.programs.thermo.entities.City;
+import be.sugoi.wopr.programs.thermo.entities.Nuke;
+import be.sugoi.wopr.programs.thermo.entities.scenario.ScenarioTemplate;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+public class WorldDataTest {
+
+    @Test
+    public void testScenarios() throws IOException {
+        var world = SampleWorld.load();
+        var scenarios = world.scenarios();
+        assertEquals(2, scenarios.size());
+        assertEquals("Sample", scenarios.get(0).name());
+        assertEquals(scenarios.get(SampleWorld.MULTI_HIT_SCENARIO).name(),
+            world.scenario(SampleWorld.MULTI_HIT_SCENARIO).name());
+    }
+
+    @Test
+    public void testTargetsOncePerRound() throws IOException {
+        var template = SampleWorld.load().scenario(0);
+        // Each enemy city once, by population, then round again
+        var enemies = enemyCities(template);
+        var expected = new ArrayList<City>();
+        while (expected.size() < SampleWorld.WARHEADS) {
+            expected.add(enemies.get(expected.size() % enemies.size()));
+        }
+        assertEquals(expected, targets(template));
+    }
+
+    @Test
+    public void testMultiHit() throws IOException {
+        var template = SampleWorld.load().scenario(SampleWorld.MULTI_HIT_SCENARIO);
+        // The biggest cities are hit several times per round, the others once
+        var enemies = enemyCities(template);
+        var weighted = SampleWorld.MULTI_HIT[0];
+        var hits = SampleWorld.MULTI_HIT[1];
+        var expected = new ArrayList<City>();
+        for (int rank = 0; expected.size() < SampleWorld.WARHEADS; rank = (rank + 1) % enemies.size()) {
+            for (int hit = 0; hit < (rank < weighted ? hits : 1) && expected.size() < SampleWorld.WARHEADS; hit++) {
+                expected.add(enemies.get(rank));
+            }
+        }
+        assertEquals(expected, targets(template));
+        // Bravo sets no weighting
+        assertEquals(targets(SampleWorld.load().scenario(0), 1), targets(template, 1));
+    }
+
+    // Alpha's enemy cities, by priority
+    private static List<City> enemyCities(ScenarioTemplate template) {
+        return template.parties().get(1).cities().stream()
+            .sorted(Comparator.comparingInt(City::population).reversed())
+            .toList();
+    }
+
+    private static List<City> targets(ScenarioTemplate template) {
+        return targets(template, 0);
+    }
+
+    private static List<City> targets(ScenarioTemplate template, int party) {
+        return template.parties().get(party).nukes().stream().map(Nuke::destination).toList();
+    }
+}